@@ -0,0 +1,135 @@
+#!/usr/bin/env bash
+#
+# Compares startup time and resident memory of the playground backend build variants.
+#
+#   jvm     plain executable jar                       (mvn package)
+#   cds     exploded jar + Spring AOT + AppCDS archive (mvn -Pcds package)
+#   native  GraalVM native executable                  (mvn -Pnative native:compile)
+#
+# Usage: scripts/startup-benchmark.sh [variant ...]     (default: jvm cds)
+#
+# Environment:
+#   RUNS                    measured starts per variant (default 5)
+#   PORT                    HTTP port used for the readiness probe (default 18080)
+#   SPRING_PROFILES_ACTIVE  profiles to start with (default: none)
+#   SKIP_BUILD=1            reuse artifacts from a previous run in build/startup-benchmark
+#
+# Startup time is measured from process launch until GET /api/health answers 200,
+# RSS is read from /proc/<pid>/status at that point (Linux only). Heap is the used
+# Java heap (survivor + eden + old) at the same point, read with jstat (JVM variants only).
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${RUNS:-5}"
+PORT="${PORT:-18080}"
+WORK_DIR="build/startup-benchmark"
+JAR_NAME="playground-backend-0.0.1-SNAPSHOT.jar"
+MAIN_CLASS="com.playground.backend.PlaygroundBackendApplication"
+MVN="./mvnw -B -q -DskipTests"
+APP_ARGS=(--server.port="$PORT" --fal.api-key=benchmark-key)
+
+VARIANTS=("$@")
+if [ ${#VARIANTS[@]} -eq 0 ]; then
+    VARIANTS=(jvm cds)
+fi
+
+now_ms() {
+    date +%s%3N
+}
+
+build_jvm() {
+    $MVN clean package
+    mkdir -p "$WORK_DIR/jvm"
+    cp "target/$JAR_NAME" "$WORK_DIR/jvm/app.jar"
+}
+
+build_cds() {
+    $MVN -Pcds clean package
+    local dir="$WORK_DIR/cds"
+    rm -rf "$dir" && mkdir -p "$dir/exploded"
+    (cd "$dir/exploded" && jar -xf "$OLDPWD/target/$JAR_NAME")
+    # CDS cannot archive classes loaded from directories, so repackage the application classes.
+    jar -cf "$dir/application.jar" -C "$dir/exploded/BOOT-INF/classes" .
+    # Training run: refresh the context, exit, and dump the loaded classes into the archive.
+    java -XX:ArchiveClassesAtExit="$dir/app.jsa" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+        -cp "$(cds_classpath)" "$MAIN_CLASS" "${APP_ARGS[@]}" > "$dir/training.log" 2>&1
+}
+
+cds_classpath() {
+    local dir="$WORK_DIR/cds"
+    echo "$dir/application.jar:$(ls "$dir"/exploded/BOOT-INF/lib/*.jar | sort | tr '\n' ':')"
+}
+
+build_native() {
+    $MVN -Pnative clean native:compile
+    mkdir -p "$WORK_DIR/native"
+    cp target/playground-backend "$WORK_DIR/native/app"
+}
+
+launch() {
+    case "$1" in
+        jvm)
+            exec java -jar "$WORK_DIR/jvm/app.jar" "${APP_ARGS[@]}" ;;
+        cds)
+            exec java -XX:SharedArchiveFile="$WORK_DIR/cds/app.jsa" -Dspring.aot.enabled=true \
+                -cp "$(cds_classpath)" "$MAIN_CLASS" "${APP_ARGS[@]}" ;;
+        native)
+            exec "$WORK_DIR/native/app" "${APP_ARGS[@]}" ;;
+    esac
+}
+
+measure() {
+    local variant="$1" start pid elapsed rss heap
+    start=$(now_ms)
+    launch "$variant" > "$WORK_DIR/$variant.log" 2>&1 &
+    pid=$!
+    until curl -sf "http://localhost:$PORT/api/health" > /dev/null 2>&1; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "$variant failed to start, see $WORK_DIR/$variant.log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    elapsed=$(( $(now_ms) - start ))
+    rss=$(awk '/VmRSS/ { print int($2 / 1024) }' "/proc/$pid/status")
+    heap=$(live_heap_mb "$variant" "$pid")
+    kill "$pid" && wait "$pid" 2>/dev/null || true
+    echo "$elapsed $rss $heap"
+}
+
+live_heap_mb() {
+    if [ "$1" = "native" ]; then
+        echo "-"
+        return
+    fi
+    jstat -gc "$2" | awk 'NR == 2 { print int(($3 + $4 + $6 + $8) / 1024) }'
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'
+}
+
+if curl -s "http://localhost:$PORT" > /dev/null 2>&1; then
+    echo "port $PORT is already in use" >&2
+    exit 1
+fi
+
+mkdir -p "$WORK_DIR"
+echo "profiles: ${SPRING_PROFILES_ACTIVE:-default}"
+printf '%-8s %14s %10s %10s\n' "variant" "startup (ms)" "RSS (MB)" "heap (MB)"
+for variant in "${VARIANTS[@]}"; do
+    if [ "${SKIP_BUILD:-0}" != "1" ]; then
+        "build_$variant" >&2
+    fi
+    times=() rsss=() heaps=()
+    for _ in $(seq "$RUNS"); do
+        read -r t r h < <(measure "$variant")
+        times+=("$t") rsss+=("$r") heaps+=("$h")
+    done
+    printf '%-8s %14s %10s %10s\n' "$variant" \
+        "$(printf '%s\n' "${times[@]}" | median)" \
+        "$(printf '%s\n' "${rsss[@]}" | median)" \
+        "$(printf '%s\n' "${heaps[@]}" | median)"
+done
@@ -0,0 +1,90 @@
+package com.playground.backend.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Size and encoding cost of {@link ImageGenerationResponse} per negotiated format.
+ *
+ * The response is a typical four-image result with a 300-character prompt. {@code encode} is the
+ * Jackson serialization alone, {@code encodeGzip} adds the compression done by the server for
+ * responses of at least 1KB. Encoded sizes, plain and gzipped, are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseEncodingBenchmark {
+
+    private static final String PROMPT = "Extreme close-up of a single tiger eye, direct frontal view. Detailed iris and pupil. "
+            + "Sharp focus on eye texture and color. Natural lighting to capture authentic eye shine and depth. "
+            + "The word \"FLUX\" is painted over it in big, white brush strokes with visible texture.";
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean compact;
+
+    private ObjectMapper mapper;
+    private ImageGenerationResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        mapper = switch (format) {
+            case "smile" -> new SmileMapper();
+            case "cbor" -> new CBORMapper();
+            default -> new ObjectMapper();
+        };
+
+        List<ImageGenerationResponse.GeneratedImage> images = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            images.add(new ImageGenerationResponse.GeneratedImage(
+                    "https://fal.media/files/panda/0p6XD090UqfnRLH8BZwj9_e9edcb84b09e43e89eeef3d5a6df92f" + i + ".jpg",
+                    2752, 1536, "image/jpeg"));
+        }
+        ImageGenerationResponse full = new ImageGenerationResponse(images, Map.of("inference", 6.218043),
+                1627638640L, List.of(false, false, false, false), PROMPT);
+        response = compact ? full.withoutEcho() : full;
+
+        System.out.printf("%n%s compact=%s: %d bytes, %d bytes gzipped%n",
+                format, compact, encode().length, encodeGzip().length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] encodeGzip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            mapper.writeValue(gzip, response);
+        }
+        return bytes.toByteArray();
+    }
+}
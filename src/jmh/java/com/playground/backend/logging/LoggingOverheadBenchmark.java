@@ -0,0 +1,148 @@
+package com.playground.backend.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.spi.MDCAdapter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request logging cost of the generation path before and after structured logging.
+ *
+ * "before" replays the former statements: the full prompt logged at INFO by both the controller and
+ * the service, and upstream 4xx responses logged at ERROR with their stack trace. "after" is the
+ * current behaviour: MDC correlation id, one INFO line with the prompt digest and a one-line WARN
+ * for upstream 4xx. Events are formatted with a console-like pattern and written to a null stream,
+ * so the numbers are formatting and dispatch cost without terminal or disk I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingOverheadBenchmark {
+
+    private static final String PROMPT = "Extreme close-up of a single tiger eye, direct frontal view. Detailed iris and pupil. "
+            + "Sharp focus on eye texture and color. Natural lighting to capture authentic eye shine and depth. "
+            + "The word \"FLUX\" is painted over it in big, white brush strokes with visible texture.";
+
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : "
+            + "[%X{requestId:-}] %m%n";
+
+    private final WebClientResponseException upstream4xx = WebClientResponseException.create(
+            HttpStatus.TOO_MANY_REQUESTS.value(), "Too Many Requests", null, "{\"detail\":\"Rate limit exceeded\"}".getBytes(), null);
+
+    private LoggerContext context;
+    private Logger syncLogger;
+    private Logger asyncLogger;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(context);
+        sink.setEncoder(encoder());
+        sink.setOutputStream(OutputStream.nullOutputStream());
+        sink.start();
+
+        OutputStreamAppender<ILoggingEvent> asyncSink = new OutputStreamAppender<>();
+        asyncSink.setContext(context);
+        asyncSink.setEncoder(encoder());
+        asyncSink.setOutputStream(OutputStream.nullOutputStream());
+        asyncSink.start();
+
+        // Same settings as logback-spring.xml
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(8192);
+        async.setNeverBlock(true);
+        async.addAppender(asyncSink);
+        async.start();
+
+        syncLogger = logger("sync", sink);
+        asyncLogger = logger("async", async);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public void requestBefore() {
+        syncLogger.info("Received image generation request with prompt: {}", PROMPT);
+        syncLogger.info("Generating image with prompt: {}", PROMPT);
+    }
+
+    @Benchmark
+    public void requestAfterSync() {
+        logRequest(syncLogger, context.getMDCAdapter());
+    }
+
+    @Benchmark
+    public void requestAfterAsync() {
+        logRequest(asyncLogger, context.getMDCAdapter());
+    }
+
+    @Benchmark
+    public void upstream4xxBefore() {
+        syncLogger.error("Error calling FAL.ai API: {}", upstream4xx.getMessage(), upstream4xx);
+    }
+
+    @Benchmark
+    public void upstream4xxAfter() {
+        syncLogger.warn("FAL.ai API returned HTTP {}", upstream4xx.getStatusCode().value());
+    }
+
+    // The benchmark context has its own MDC adapter, so it is used directly instead of org.slf4j.MDC
+    private static void logRequest(Logger logger, MDCAdapter mdc) {
+        mdc.put(RequestCorrelationFilter.MDC_KEY, "5f0c6f1e-4a34-4d0e-9a52-7c7f3e0e2b11");
+        try {
+            logger.info("Received image generation request: prompt[{}] num_images={} aspect_ratio={} output_format={}",
+                    PromptLog.describe(PROMPT), 1, "16:9", "jpeg");
+            logger.debug("Generating image: prompt[{}] model_id={}", PromptLog.describe(PROMPT), "fal-ai/flux-pro/v1.1-ultra");
+        } finally {
+            mdc.remove(RequestCorrelationFilter.MDC_KEY);
+        }
+    }
+
+    private PatternLayoutEncoder encoder() {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        return encoder;
+    }
+
+    private Logger logger(String name, Appender<ILoggingEvent> appender) {
+        Logger logger = context.getLogger(name);
+        logger.setLevel(ch.qos.logback.classic.Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+        return logger;
+    }
+}
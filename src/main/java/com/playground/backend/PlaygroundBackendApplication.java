@@ -3,13 +3,25 @@ package com.playground.backend;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import com.playground.backend.config.CacheConfig;
+import com.playground.backend.config.ChannelConfig;
+import com.playground.backend.config.ClusterConfig;
 import com.playground.backend.config.FalConfig;
+import com.playground.backend.config.GridConfig;
+import com.playground.backend.config.PlaygroundRuntimeHints;
+import com.playground.backend.config.RequestLimitsConfig;
+import com.playground.backend.config.UsageConfig;
 
 @SpringBootApplication
-@EnableConfigurationProperties(FalConfig.class)
+@EnableConfigurationProperties({FalConfig.class, RequestLimitsConfig.class, UsageConfig.class,
+        ClusterConfig.class, CacheConfig.class, ChannelConfig.class, GridConfig.class})
+@EnableScheduling
+@ImportRuntimeHints(PlaygroundRuntimeHints.class)
 public class PlaygroundBackendApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(PlaygroundBackendApplication.class, args);
     }
-} 
\ No newline at end of file
+}
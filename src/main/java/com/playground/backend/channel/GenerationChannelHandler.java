@@ -0,0 +1,235 @@
+package com.playground.backend.channel;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playground.backend.config.ChannelConfig;
+import com.playground.backend.controller.ImageGenerationController;
+import com.playground.backend.dto.ChannelMessage;
+import com.playground.backend.dto.ImageGenerationRequest;
+import com.playground.backend.exception.BudgetExceededException;
+import com.playground.backend.logging.PromptLog;
+import com.playground.backend.logging.RateLimitedLogger;
+import com.playground.backend.logging.RequestCorrelationFilter;
+import com.playground.backend.service.CoordinatedImageGenerationService;
+import com.playground.backend.service.GenerationResult;
+import com.playground.backend.service.UsageAccountingService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * WebSocket counterpart of {@link ImageGenerationController} for interactive clients.
+ *
+ * One connection carries any number of generations: each {@code generate} message names an
+ * {@code id}, and the result is pushed back under that id as soon as it is ready, in completion
+ * order. A {@code cancel} message stops waiting for a generation, but its reserved cost is still
+ * charged, as the upstream call has been made. The tenant is fixed per connection, from the
+ * {@code X-Tenant-Id} handshake header or, for browsers, the {@code tenant} query parameter.
+ * Validation, budgets and accounting are the same as on the HTTP endpoint.
+ */
+@Component
+public class GenerationChannelHandler extends TextWebSocketHandler {
+
+    public static final String PATH = "/api/ws/generate";
+    public static final String TENANT_PARAMETER = "tenant";
+
+    private static final Logger logger = LoggerFactory.getLogger(GenerationChannelHandler.class);
+    private static final RateLimitedLogger errorLogger = new RateLimitedLogger(logger, 5, 1, TimeUnit.MINUTES);
+    private static final Pattern VALID_TENANT = Pattern.compile(ImageGenerationController.TENANT_PATTERN);
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final CoordinatedImageGenerationService imageGenerationService;
+    private final UsageAccountingService usageAccountingService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ChannelConfig channelConfig;
+
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+
+    @Autowired
+    public GenerationChannelHandler(CoordinatedImageGenerationService imageGenerationService,
+                                    UsageAccountingService usageAccountingService, ObjectMapper objectMapper,
+                                    Validator validator, ChannelConfig channelConfig) {
+        this.imageGenerationService = imageGenerationService;
+        this.usageAccountingService = usageAccountingService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.channelConfig = channelConfig;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        String tenant = session.getHandshakeHeaders().getFirst(ImageGenerationController.TENANT_HEADER);
+        if (tenant == null && session.getUri() != null) {
+            tenant = UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams().getFirst(TENANT_PARAMETER);
+        }
+        if (tenant != null && !VALID_TENANT.matcher(tenant).matches()) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Tenant id must match " + ImageGenerationController.TENANT_PATTERN));
+            return;
+        }
+
+        // Results are pushed from whichever thread completes them, so sends go through the decorator
+        WebSocketSession concurrentSession = new ConcurrentWebSocketSessionDecorator(session,
+                (int) channelConfig.getSendTimeLimit().toMillis(), (int) channelConfig.getSendBufferSize().toBytes());
+        channels.put(session.getId(), new Channel(concurrentSession, UsageAccountingService.resolveTenant(tenant)));
+        logger.debug("Channel {} opened for tenant {}", session.getId(), UsageAccountingService.resolveTenant(tenant));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage textMessage) {
+        Channel channel = channels.get(session.getId());
+        if (channel == null) {
+            return;
+        }
+
+        ChannelMessage message;
+        try {
+            message = objectMapper.readValue(textMessage.getPayload(), ChannelMessage.class);
+        } catch (JsonProcessingException e) {
+            send(channel, ChannelMessage.error(null, "Malformed message"));
+            return;
+        }
+        if (message.getId() == null || !VALID_ID.matcher(message.getId()).matches()) {
+            send(channel, ChannelMessage.error(message.getId(), "Message id must match " + VALID_ID.pattern()));
+            return;
+        }
+
+        if (message.getType() == ChannelMessage.Type.GENERATE) {
+            generate(session.getId(), channel, message.getId(), message.getRequest(),
+                    Boolean.TRUE.equals(message.getCompact()));
+        } else if (message.getType() == ChannelMessage.Type.CANCEL) {
+            cancel(channel, message.getId());
+        } else {
+            send(channel, ChannelMessage.error(message.getId(), "Unsupported message type: " + message.getType()));
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Channel channel = channels.remove(session.getId());
+        if (channel != null) {
+            channel.inFlight().values().forEach(Disposable::dispose);
+            logger.debug("Channel {} closed: {}", session.getId(), status);
+        }
+    }
+
+    private void generate(String sessionId, Channel channel, String id, ImageGenerationRequest request,
+                          boolean compact) {
+        if (request == null) {
+            send(channel, ChannelMessage.error(id, "Request is required"));
+            return;
+        }
+        String errorMessage = validate(request);
+        if (errorMessage != null) {
+            send(channel, ChannelMessage.error(id, errorMessage));
+            return;
+        }
+        // Messages of one session are delivered one at a time, so the size check cannot race
+        if (channel.inFlight().size() >= channelConfig.getMaxInFlight()) {
+            send(channel, ChannelMessage.error(id, "Too many generations in flight, at most "
+                    + channelConfig.getMaxInFlight() + " per connection"));
+            return;
+        }
+        Disposable.Swap subscription = Disposables.swap();
+        if (channel.inFlight().putIfAbsent(id, subscription) != null) {
+            send(channel, ChannelMessage.error(id, "A generation with this id is already in flight"));
+            return;
+        }
+
+        MDC.put(RequestCorrelationFilter.MDC_KEY, sessionId + "-" + id);
+        try {
+            logger.info("Received image generation message: prompt[{}] num_images={} aspect_ratio={} output_format={}",
+                    PromptLog.describe(request.getPrompt()), request.getNumImages(),
+                    request.getAspectRatio(), request.getOutputFormat());
+
+            String tenant = channel.tenant();
+            UsageAccountingService.Reservation reservation;
+            try {
+                reservation = usageAccountingService.admit(tenant, request);
+            } catch (BudgetExceededException e) {
+                logger.warn("Rejected request of tenant {}: {}", tenant, e.getMessage());
+                channel.inFlight().remove(id, subscription);
+                send(channel, ChannelMessage.error(id, e.getMessage()));
+                return;
+            }
+            long start = System.nanoTime();
+
+            subscription.update(imageGenerationService.generateImage(request)
+                    .doOnNext(result -> usageAccountingService.record(reservation, result, System.nanoTime() - start))
+                    .doOnError(error -> usageAccountingService.record(reservation, null, System.nanoTime() - start))
+                    .doOnCancel(() -> usageAccountingService.abandon(reservation, System.nanoTime() - start))
+                    .map(GenerationResult::response)
+                    .map(response -> "error".equals(response.getStatus())
+                            ? ChannelMessage.error(id, response.getError())
+                            : ChannelMessage.result(id, compact ? response.withoutEcho() : response))
+                    .onErrorResume(error -> {
+                        errorLogger.error("Unexpected error in image generation", error);
+                        return Mono.just(ChannelMessage.error(id, "Unexpected error: " + error.getMessage()));
+                    })
+                    .doFinally(signal -> channel.inFlight().remove(id, subscription))
+                    .subscribe(result -> send(channel, result)));
+        } finally {
+            MDC.remove(RequestCorrelationFilter.MDC_KEY);
+        }
+    }
+
+    private void cancel(Channel channel, String id) {
+        Disposable subscription = channel.inFlight().remove(id);
+        if (subscription == null) {
+            send(channel, ChannelMessage.error(id, "No generation in flight with this id"));
+            return;
+        }
+        subscription.dispose();
+        send(channel, new ChannelMessage(ChannelMessage.Type.CANCELLED, id));
+    }
+
+    private String validate(ImageGenerationRequest request) {
+        Set<ConstraintViolation<ImageGenerationRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        Map<String, String> errors = new TreeMap<>();
+        violations.forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+        return "Validation failed: " + errors;
+    }
+
+    private void send(Channel channel, ChannelMessage message) {
+        if (!channel.session().isOpen()) {
+            return;
+        }
+        try {
+            channel.session().sendMessage(new TextMessage(objectMapper.writeValueAsString(message)));
+        } catch (IOException | RuntimeException e) {
+            // The decorator closes sessions whose client stopped reading; nothing left to deliver to
+            logger.debug("Could not send {} for {}: {}", message.getType(), message.getId(), e.toString());
+        }
+    }
+
+    private record Channel(WebSocketSession session, String tenant, Map<String, Disposable> inFlight) {
+
+        Channel(WebSocketSession session, String tenant) {
+            this(session, tenant, new ConcurrentHashMap<>());
+        }
+    }
+}
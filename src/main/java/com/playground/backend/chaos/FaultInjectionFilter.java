@@ -0,0 +1,133 @@
+package com.playground.backend.chaos;
+
+import com.playground.backend.dto.FaultInjectionSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Injects faults into the FAL.ai WebClient: added latency, HTTP errors, connection resets,
+ * truncated or malformed bodies and bodies that arrive in small delayed chunks.
+ *
+ * Only present with {@code playground.chaos.enabled=true}, and injects nothing until settings are
+ * applied, normally through {@code /internal/chaos}. Faults act on the exchange, so everything the
+ * service does with the response (decoding, mapping, timeouts, error handling) runs as it would
+ * against a misbehaving upstream.
+ */
+@Component
+@ConditionalOnProperty(name = "playground.chaos.enabled", havingValue = "true")
+public class FaultInjectionFilter implements ExchangeFilterFunction {
+
+    static final String MALFORMED_BODY = "{\"images\":[{\"url\":42,\"width\":\"wide\"}],\"seed\":\"n/a\"}";
+
+    private static final Logger logger = LoggerFactory.getLogger(FaultInjectionFilter.class);
+
+    private final AtomicReference<FaultInjectionSettings> settings = new AtomicReference<>(new FaultInjectionSettings());
+    private final DoubleSupplier random;
+
+    public FaultInjectionFilter() {
+        this(() -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    FaultInjectionFilter(DoubleSupplier random) {
+        this.random = random;
+    }
+
+    public FaultInjectionSettings getSettings() {
+        return settings.get();
+    }
+
+    public void setSettings(FaultInjectionSettings settings) {
+        this.settings.set(settings);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        FaultInjectionSettings current = settings.get();
+        Mono<ClientResponse> response = exchange(current, request, next);
+        if (current.getLatencyMs() > 0 && random.getAsDouble() < current.getLatencyRate()) {
+            response = response.delaySubscription(Duration.ofMillis(current.getLatencyMs()));
+        }
+        return response;
+    }
+
+    private Mono<ClientResponse> exchange(FaultInjectionSettings current, ClientRequest request, ExchangeFunction next) {
+        // One roll picks at most one of the mutually exclusive faults
+        double roll = random.getAsDouble();
+        double threshold = current.getErrorRate();
+
+        if (roll < threshold) {
+            logger.debug("Injecting HTTP {} for {}", current.getErrorStatus(), request.url());
+            return Mono.just(ClientResponse.create(HttpStatus.valueOf(current.getErrorStatus()))
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body("{\"detail\":\"Injected fault\"}")
+                    .build());
+        }
+        threshold += current.getResetRate();
+        if (roll < threshold) {
+            logger.debug("Injecting connection reset for {}", request.url());
+            return Mono.error(new WebClientRequestException(new IOException("Connection reset by peer (injected fault)"),
+                    request.method(), request.url(), request.headers()));
+        }
+        threshold += current.getTruncatedRate();
+        if (roll < threshold) {
+            logger.debug("Injecting truncated body for {}", request.url());
+            return next.exchange(request).map(response -> response.mutate()
+                    .body(body -> DataBufferUtils.join(body).map(FaultInjectionFilter::firstHalf).flux())
+                    .build());
+        }
+        threshold += current.getMalformedRate();
+        if (roll < threshold) {
+            logger.debug("Injecting malformed body for {}", request.url());
+            return next.exchange(request).map(response -> response.mutate().body(MALFORMED_BODY).build());
+        }
+        threshold += current.getSlowDripRate();
+        if (roll < threshold) {
+            logger.debug("Injecting slow-drip body for {}", request.url());
+            Duration interval = Duration.ofMillis(current.getDripIntervalMs());
+            return next.exchange(request).map(response -> response.mutate()
+                    .body(body -> DataBufferUtils.join(body)
+                            .flatMapMany(buffer -> chunks(buffer, current.getDripChunkBytes()))
+                            .delayElements(interval))
+                    .build());
+        }
+        return next.exchange(request);
+    }
+
+    private static DataBuffer firstHalf(DataBuffer buffer) {
+        byte[] bytes = new byte[buffer.readableByteCount() / 2];
+        buffer.read(bytes);
+        DataBufferUtils.release(buffer);
+        return DefaultDataBufferFactory.sharedInstance.wrap(bytes);
+    }
+
+    private static Flux<DataBuffer> chunks(DataBuffer buffer, int chunkSize) {
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        DataBufferUtils.release(buffer);
+        return Flux.range(0, (bytes.length + chunkSize - 1) / chunkSize)
+                .map(i -> DefaultDataBufferFactory.sharedInstance.wrap(
+                        Arrays.copyOfRange(bytes, i * chunkSize, Math.min(bytes.length, (i + 1) * chunkSize))));
+    }
+}
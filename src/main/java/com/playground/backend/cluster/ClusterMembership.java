@@ -0,0 +1,143 @@
+package com.playground.backend.cluster;
+
+import com.playground.backend.config.ClusterConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which replicas are alive and maintains the hash ring over them.
+ *
+ * All configured peers start as members, so replicas that boot with the same configuration agree on
+ * the ring immediately. Peers are probed on {@code /api/health}; a peer leaves the ring after
+ * {@code failure-threshold} consecutive failed probes and rejoins after one successful probe. This
+ * replica is always a member of its own ring.
+ */
+@Component
+public class ClusterMembership {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterMembership.class);
+    private static final Duration PROBE_TIMEOUT = Duration.ofSeconds(2);
+
+    private final ClusterConfig clusterConfig;
+    private final WebClient webClient;
+    private final String self;
+    private final Set<String> peers;
+    private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+
+    private volatile ConsistentHashRing ring;
+
+    @Autowired
+    public ClusterMembership(ClusterConfig clusterConfig, WebClient.Builder webClientBuilder) {
+        this.clusterConfig = clusterConfig;
+        this.webClient = webClientBuilder.build();
+
+        if (clusterConfig.isEnabled() && (clusterConfig.getSelf() == null || clusterConfig.getSelf().isEmpty())) {
+            throw new IllegalStateException("playground.cluster.self must be set when the cluster is enabled");
+        }
+        // Forwarded requests bypass budgets, so the endpoint must never be open
+        if (clusterConfig.isEnabled() && (clusterConfig.getSecret() == null || clusterConfig.getSecret().isBlank())) {
+            throw new IllegalStateException("playground.cluster.secret must be set when the cluster is enabled");
+        }
+        this.self = clusterConfig.isEnabled() ? normalize(clusterConfig.getSelf()) : "local";
+
+        Set<String> configuredPeers = new LinkedHashSet<>();
+        if (clusterConfig.isEnabled()) {
+            clusterConfig.getPeers().stream()
+                    .map(ClusterMembership::normalize)
+                    .filter(peer -> !peer.equals(self))
+                    .forEach(configuredPeers::add);
+        }
+        this.peers = Set.copyOf(configuredPeers);
+        rebuildRing();
+
+        if (clusterConfig.isEnabled()) {
+            logger.info("Cluster enabled: self={} peers={}", self, peers);
+        }
+    }
+
+    public boolean isEnabled() {
+        return clusterConfig.isEnabled();
+    }
+
+    public String getSelf() {
+        return self;
+    }
+
+    public boolean isSelf(String node) {
+        return self.equals(node);
+    }
+
+    public ConsistentHashRing getRing() {
+        return ring;
+    }
+
+    /**
+     * Returns the replica owning the key: this replica when the cluster is disabled.
+     */
+    public String ownerOf(String key) {
+        return ring.nodeFor(key);
+    }
+
+    @Scheduled(fixedDelayString = "${playground.cluster.health-check-interval:PT5S}")
+    public void probePeers() {
+        if (peers.isEmpty()) {
+            return;
+        }
+        Flux.fromIterable(peers)
+                .flatMap(peer -> webClient.get()
+                        .uri(peer + "/api/health")
+                        .retrieve()
+                        .toBodilessEntity()
+                        .timeout(PROBE_TIMEOUT)
+                        .map(response -> true)
+                        .onErrorReturn(false)
+                        .doOnNext(healthy -> onProbe(peer, healthy)))
+                .then()
+                .block();
+    }
+
+    /**
+     * Records the outcome of a probe or of a forwarded request and rebuilds the ring if the peer
+     * joined or left.
+     */
+    public void onProbe(String peer, boolean healthy) {
+        boolean wasMember = isMember(peer);
+        if (healthy) {
+            failures.remove(peer);
+        } else {
+            failures.merge(peer, 1, Integer::sum);
+        }
+        boolean isMember = isMember(peer);
+        if (wasMember != isMember) {
+            logger.info("Peer {} {} the cluster", peer, isMember ? "rejoined" : "left");
+            rebuildRing();
+        }
+    }
+
+    private boolean isMember(String peer) {
+        return failures.getOrDefault(peer, 0) < clusterConfig.getFailureThreshold();
+    }
+
+    private synchronized void rebuildRing() {
+        Set<String> members = new LinkedHashSet<>();
+        members.add(self);
+        peers.stream().filter(this::isMember).forEach(members::add);
+        ring = new ConsistentHashRing(members, clusterConfig.getVirtualNodes());
+    }
+
+    private static String normalize(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -0,0 +1,84 @@
+package com.playground.backend.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent hash ring. Each node is placed at {@code virtualNodes} positions, and a key
+ * belongs to the first node at or after the key's position. Adding or removing one of N nodes moves
+ * only about 1/N of the keys.
+ *
+ * Positions only depend on the node ids and the key, so every replica with the same membership
+ * computes the same owner.
+ */
+public final class ConsistentHashRing {
+
+    private final long[] positions;
+    private final String[] owners;
+    private final List<String> nodes;
+
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        this.nodes = List.copyOf(new TreeSet<>(nodes));
+        int size = this.nodes.size() * virtualNodes;
+
+        long[] unsortedPositions = new long[size];
+        String[] unsortedOwners = new String[size];
+        Integer[] order = new Integer[size];
+        int i = 0;
+        for (String node : this.nodes) {
+            for (int v = 0; v < virtualNodes; v++) {
+                unsortedPositions[i] = hash(node + "#" + v);
+                unsortedOwners[i] = node;
+                order[i] = i;
+                i++;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(unsortedPositions[a], unsortedPositions[b]));
+
+        this.positions = new long[size];
+        this.owners = new String[size];
+        for (int j = 0; j < size; j++) {
+            positions[j] = unsortedPositions[order[j]];
+            owners[j] = unsortedOwners[order[j]];
+        }
+    }
+
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the node owning the key, or {@code null} if the ring is empty.
+     */
+    public String nodeFor(String key) {
+        if (positions.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(positions, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == positions.length ? 0 : index];
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer so that similar keys
+     * land far apart on the ring.
+     */
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
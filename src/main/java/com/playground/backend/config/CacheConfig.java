@@ -0,0 +1,35 @@
+package com.playground.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "playground.cache")
+public class CacheConfig {
+
+    // Successful responses to seeded requests kept per instance; 0 disables the cache
+    private int maxEntries = 1000;
+
+    // FAL.ai result URLs are not permanent, so cached responses expire
+    private Duration ttl = Duration.ofHours(1);
+
+    // Default constructor
+    public CacheConfig() {}
+
+    // Getters and Setters
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+}
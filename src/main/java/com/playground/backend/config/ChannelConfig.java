@@ -0,0 +1,56 @@
+package com.playground.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "playground.channel")
+public class ChannelConfig {
+
+    // Generations a single WebSocket session may have in flight; further ones are rejected
+    private int maxInFlight = 8;
+
+    // Sessions without any message for this long are closed by the container
+    private Duration idleTimeout = Duration.ofMinutes(5);
+
+    // A client that does not read its results within these limits is disconnected
+    private Duration sendTimeLimit = Duration.ofSeconds(10);
+    private DataSize sendBufferSize = DataSize.ofMegabytes(1);
+
+    // Default constructor
+    public ChannelConfig() {}
+
+    // Getters and Setters
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public Duration getSendTimeLimit() {
+        return sendTimeLimit;
+    }
+
+    public void setSendTimeLimit(Duration sendTimeLimit) {
+        this.sendTimeLimit = sendTimeLimit;
+    }
+
+    public DataSize getSendBufferSize() {
+        return sendBufferSize;
+    }
+
+    public void setSendBufferSize(DataSize sendBufferSize) {
+        this.sendBufferSize = sendBufferSize;
+    }
+}
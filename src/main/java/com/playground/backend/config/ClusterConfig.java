@@ -0,0 +1,101 @@
+package com.playground.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "playground.cluster")
+public class ClusterConfig {
+
+    private boolean enabled = false;
+
+    // Base URL under which the other replicas reach this one, e.g. http://10.0.0.12:8080
+    private String self;
+
+    // Base URLs of all replicas; may include this one, so every replica can share the same list
+    private List<String> peers = new ArrayList<>();
+
+    // Positions per replica on the hash ring; more positions spread keys more evenly
+    private int virtualNodes = 128;
+
+    // Consecutive failed health checks after which a peer leaves the ring
+    private int failureThreshold = 2;
+
+    private Duration forwardTimeout = Duration.ofSeconds(120);
+
+    // Shared secret required on forwarded requests and other internal endpoints; must be set when
+    // the cluster is enabled
+    private String secret;
+
+    // Default constructor
+    public ClusterConfig() {}
+
+    /**
+     * Whether a request carries the cluster secret. Always false while no secret is configured.
+     */
+    public boolean secretMatches(String candidate) {
+        return secret != null && !secret.isBlank() && candidate != null && MessageDigest.isEqual(
+                secret.getBytes(StandardCharsets.UTF_8), candidate.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getSelf() {
+        return self;
+    }
+
+    public void setSelf(String self) {
+        this.self = self;
+    }
+
+    public List<String> getPeers() {
+        return peers;
+    }
+
+    public void setPeers(List<String> peers) {
+        this.peers = peers;
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    public void setVirtualNodes(int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public void setFailureThreshold(int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    public Duration getForwardTimeout() {
+        return forwardTimeout;
+    }
+
+    public void setForwardTimeout(Duration forwardTimeout) {
+        this.forwardTimeout = forwardTimeout;
+    }
+
+    public String getSecret() {
+        return secret;
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+}
@@ -0,0 +1,31 @@
+package com.playground.backend.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary encodings of the JSON API, selected with the {@code Accept} and {@code Content-Type}
+ * headers: CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}).
+ *
+ * Both mappers are built from Boot's {@link Jackson2ObjectMapperBuilder}, so {@code spring.jackson.*}
+ * settings and registered modules apply to every format alike. JSON stays the default when the
+ * client does not ask for anything else.
+ */
+@Configuration
+public class ContentNegotiationConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
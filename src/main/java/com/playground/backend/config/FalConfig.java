@@ -3,6 +3,8 @@ package com.playground.backend.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Component
 @ConfigurationProperties(prefix = "fal")
 public class FalConfig {
@@ -11,6 +13,9 @@ public class FalConfig {
     private String apiUrl;
     private String modelId;
 
+    // Upper bound for one generation call, including reading the response body
+    private Duration timeout = Duration.ofSeconds(60);
+
     // Default constructor
     public FalConfig() {}
 
@@ -38,4 +43,12 @@ public class FalConfig {
     public void setModelId(String modelId) {
         this.modelId = modelId;
     }
-} 
\ No newline at end of file
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+}
@@ -0,0 +1,33 @@
+package com.playground.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "playground.grid")
+public class GridConfig {
+
+    // Largest number of cells a grid request may expand to
+    private int maxCells = 64;
+
+    // Cells of one grid generated upstream at the same time
+    private int concurrency = 4;
+
+    // Default constructor
+    public GridConfig() {}
+
+    // Getters and Setters
+    public int getMaxCells() {
+        return maxCells;
+    }
+
+    public void setMaxCells(int maxCells) {
+        this.maxCells = maxCells;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+}
@@ -0,0 +1,41 @@
+package com.playground.backend.config;
+
+import com.playground.backend.dto.ChannelMessage;
+import com.playground.backend.dto.FaultInjectionSettings;
+import com.playground.backend.dto.GridCell;
+import com.playground.backend.dto.GridGenerationRequest;
+import com.playground.backend.dto.ImageGenerationRequest;
+import com.playground.backend.dto.ImageGenerationResponse;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection hints for the AOT / native-image build.
+ *
+ * The DTOs are (de)serialized by Jackson and {@link FalConfig} is bound from
+ * properties, so both need their constructors and accessors reachable when
+ * the application runs as a native executable.
+ */
+public class PlaygroundRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindingRegistrar.registerReflectionHints(hints.reflection(),
+                ImageGenerationRequest.class,
+                ImageGenerationResponse.class,
+                ImageGenerationResponse.Compact.class,
+                ImageGenerationResponse.GeneratedImage.class,
+                ChannelMessage.class,
+                GridGenerationRequest.class,
+                GridCell.class,
+                FaultInjectionSettings.class);
+
+        hints.reflection().registerType(FalConfig.class,
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+}
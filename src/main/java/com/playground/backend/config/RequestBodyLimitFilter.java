@@ -0,0 +1,132 @@
+package com.playground.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playground.backend.dto.ImageGenerationResponse;
+import com.playground.backend.exception.PayloadTooLargeException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Caps the size of request bodies under {@code /api} and {@code /internal} before they reach Jackson.
+ *
+ * Requests that declare a larger Content-Length are rejected with 413 without reading the body.
+ * Chunked bodies are counted while they are streamed, and reading past the limit fails with a
+ * {@link PayloadTooLargeException}, which {@code GlobalExceptionHandler} also maps to 413.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestBodyLimitFilter extends OncePerRequestFilter {
+
+    private final long maxBytes;
+    private final ObjectMapper objectMapper;
+
+    public RequestBodyLimitFilter(RequestLimitsConfig requestLimitsConfig, ObjectMapper objectMapper) {
+        this.maxBytes = requestLimitsConfig.getMaxBodySize().toBytes();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        String uri = request.getRequestURI();
+        return !(uri.startsWith("/api/") || uri.startsWith("/internal/"))
+                || !("POST".equals(method) || "PUT".equals(method));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (request.getContentLengthLong() > maxBytes) {
+            response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    new ImageGenerationResponse(PayloadTooLargeException.message(maxBytes)));
+            return;
+        }
+        filterChain.doFilter(new LimitedBodyRequest(request, maxBytes), response);
+    }
+
+    private static class LimitedBodyRequest extends HttpServletRequestWrapper {
+
+        private final long maxBytes;
+        private ServletInputStream inputStream;
+
+        LimitedBodyRequest(HttpServletRequest request, long maxBytes) {
+            super(request);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new LimitedInputStream(super.getInputStream(), maxBytes);
+            }
+            return inputStream;
+        }
+    }
+
+    private static class LimitedInputStream extends ServletInputStream {
+
+        private final ServletInputStream delegate;
+        private final long maxBytes;
+        private long bytesRead;
+
+        LimitedInputStream(ServletInputStream delegate, long maxBytes) {
+            this.delegate = delegate;
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = delegate.read(buffer, offset, length);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws PayloadTooLargeException {
+            bytesRead += n;
+            if (bytesRead > maxBytes) {
+                throw new PayloadTooLargeException(maxBytes);
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            delegate.setReadListener(readListener);
+        }
+    }
+}
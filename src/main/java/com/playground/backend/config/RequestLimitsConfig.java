@@ -0,0 +1,23 @@
+package com.playground.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "playground.request")
+public class RequestLimitsConfig {
+
+    // Largest accepted JSON body for POST/PUT requests under /api
+    private DataSize maxBodySize = DataSize.ofKilobytes(16);
+
+    // Default constructor
+    public RequestLimitsConfig() {}
+
+    // Getters and Setters
+    public DataSize getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    public void setMaxBodySize(DataSize maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+}
@@ -0,0 +1,92 @@
+package com.playground.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "playground.usage")
+public class UsageConfig {
+
+    public enum OverBudgetAction {
+        // Reject the request with 429
+        REJECT,
+        // Reduce num_images to what the remaining budget covers, reject if not even one image fits
+        DOWNGRADE
+    }
+
+    // Estimated upstream price per generated image in USD, by model id
+    private Map<String, BigDecimal> costPerImage = new HashMap<>();
+    private BigDecimal defaultCostPerImage = new BigDecimal("0.06");
+
+    // Monthly budget in USD by tenant; tenants without an entry get the default (unlimited if unset)
+    private Map<String, BigDecimal> budgets = new HashMap<>();
+    private BigDecimal defaultBudget;
+
+    private OverBudgetAction overBudgetAction = OverBudgetAction.REJECT;
+
+    // Tags the usage_record rows of this instance; must be stable and unique per instance when
+    // instances share a database, as each one restores only its own rows
+    private String replica = "default";
+
+    // Default constructor
+    public UsageConfig() {}
+
+    public BigDecimal costPerImage(String modelId) {
+        return costPerImage.getOrDefault(modelId, defaultCostPerImage);
+    }
+
+    public BigDecimal budget(String tenant) {
+        return budgets.getOrDefault(tenant, defaultBudget);
+    }
+
+    // Getters and Setters
+    public Map<String, BigDecimal> getCostPerImage() {
+        return costPerImage;
+    }
+
+    public void setCostPerImage(Map<String, BigDecimal> costPerImage) {
+        this.costPerImage = costPerImage;
+    }
+
+    public BigDecimal getDefaultCostPerImage() {
+        return defaultCostPerImage;
+    }
+
+    public void setDefaultCostPerImage(BigDecimal defaultCostPerImage) {
+        this.defaultCostPerImage = defaultCostPerImage;
+    }
+
+    public Map<String, BigDecimal> getBudgets() {
+        return budgets;
+    }
+
+    public void setBudgets(Map<String, BigDecimal> budgets) {
+        this.budgets = budgets;
+    }
+
+    public BigDecimal getDefaultBudget() {
+        return defaultBudget;
+    }
+
+    public void setDefaultBudget(BigDecimal defaultBudget) {
+        this.defaultBudget = defaultBudget;
+    }
+
+    public OverBudgetAction getOverBudgetAction() {
+        return overBudgetAction;
+    }
+
+    public void setOverBudgetAction(OverBudgetAction overBudgetAction) {
+        this.overBudgetAction = overBudgetAction;
+    }
+
+    public String getReplica() {
+        return replica;
+    }
+
+    public void setReplica(String replica) {
+        this.replica = replica;
+    }
+}
@@ -0,0 +1,38 @@
+package com.playground.backend.config;
+
+import com.playground.backend.channel.GenerationChannelHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final GenerationChannelHandler generationChannelHandler;
+
+    @Autowired
+    public WebSocketConfig(GenerationChannelHandler generationChannelHandler) {
+        this.generationChannelHandler = generationChannelHandler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(generationChannelHandler, GenerationChannelHandler.PATH)
+                .setAllowedOriginPatterns(CorsConfig.ALLOWED_ORIGINS);
+    }
+
+    @Bean
+    public ServletServerContainerFactoryBean createWebSocketContainer(RequestLimitsConfig requestLimitsConfig,
+                                                                      ChannelConfig channelConfig) {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        // A generate message carries one request, so it gets the same limit as a request body
+        container.setMaxTextMessageBufferSize((int) requestLimitsConfig.getMaxBodySize().toBytes());
+        container.setMaxSessionIdleTimeout(channelConfig.getIdleTimeout().toMillis());
+        return container;
+    }
+}
@@ -0,0 +1,80 @@
+package com.playground.backend.controller;
+
+import com.playground.backend.chaos.FaultInjectionFilter;
+import com.playground.backend.config.ClusterConfig;
+import com.playground.backend.dto.FaultInjectionSettings;
+import com.playground.backend.exception.ForbiddenException;
+import com.playground.backend.service.CoordinatedImageGenerationService;
+import io.swagger.v3.oas.annotations.Hidden;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Runtime control of {@link FaultInjectionFilter}. Like the cluster endpoints it lives under
+ * {@code /internal}, which must not be exposed outside the deployment, and every call must carry
+ * the cluster secret.
+ */
+@Hidden
+@RestController
+@RequestMapping("/internal/chaos")
+@ConditionalOnProperty(name = "playground.chaos.enabled", havingValue = "true")
+public class ChaosController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChaosController.class);
+
+    private final FaultInjectionFilter faultInjectionFilter;
+    private final ClusterConfig clusterConfig;
+
+    @Autowired
+    public ChaosController(FaultInjectionFilter faultInjectionFilter, ClusterConfig clusterConfig) {
+        this.faultInjectionFilter = faultInjectionFilter;
+        this.clusterConfig = clusterConfig;
+    }
+
+    @GetMapping
+    public ResponseEntity<FaultInjectionSettings> getSettings(
+            @RequestHeader(value = CoordinatedImageGenerationService.SECRET_HEADER, required = false) String secret) {
+        checkSecret(secret);
+        return ResponseEntity.ok(faultInjectionFilter.getSettings());
+    }
+
+    @PutMapping
+    public ResponseEntity<FaultInjectionSettings> updateSettings(
+            @Valid @RequestBody FaultInjectionSettings settings,
+            @RequestHeader(value = CoordinatedImageGenerationService.SECRET_HEADER, required = false) String secret) {
+        checkSecret(secret);
+        faultInjectionFilter.setSettings(settings);
+        logger.warn("Fault injection for FAL.ai calls updated: latency_ms={} latency_rate={} error_rate={} reset_rate={} "
+                        + "truncated_rate={} malformed_rate={} slow_drip_rate={}",
+                settings.getLatencyMs(), settings.getLatencyRate(), settings.getErrorRate(), settings.getResetRate(),
+                settings.getTruncatedRate(), settings.getMalformedRate(), settings.getSlowDripRate());
+        return ResponseEntity.ok(settings);
+    }
+
+    @DeleteMapping
+    public ResponseEntity<FaultInjectionSettings> clearSettings(
+            @RequestHeader(value = CoordinatedImageGenerationService.SECRET_HEADER, required = false) String secret) {
+        checkSecret(secret);
+        FaultInjectionSettings settings = new FaultInjectionSettings();
+        faultInjectionFilter.setSettings(settings);
+        logger.warn("Fault injection for FAL.ai calls cleared");
+        return ResponseEntity.ok(settings);
+    }
+
+    private void checkSecret(String secret) {
+        if (!clusterConfig.secretMatches(secret)) {
+            throw new ForbiddenException("Fault injection can only be controlled by internal callers");
+        }
+    }
+}
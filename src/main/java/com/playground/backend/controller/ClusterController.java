@@ -0,0 +1,50 @@
+package com.playground.backend.controller;
+
+import com.playground.backend.config.ClusterConfig;
+import com.playground.backend.dto.ImageGenerationRequest;
+import com.playground.backend.dto.ImageGenerationResponse;
+import com.playground.backend.service.CoordinatedImageGenerationService;
+import io.swagger.v3.oas.annotations.Hidden;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Receives seeded requests forwarded by other replicas to the replica owning their key. Forwarded
+ * requests are served locally and never forwarded again, so replicas whose rings briefly disagree
+ * during a membership change cannot bounce a request between them.
+ */
+@Hidden
+@RestController
+public class ClusterController {
+
+    private final CoordinatedImageGenerationService coordinatedImageGenerationService;
+    private final ClusterConfig clusterConfig;
+
+    @Autowired
+    public ClusterController(CoordinatedImageGenerationService coordinatedImageGenerationService,
+                             ClusterConfig clusterConfig) {
+        this.coordinatedImageGenerationService = coordinatedImageGenerationService;
+        this.clusterConfig = clusterConfig;
+    }
+
+    @PostMapping(CoordinatedImageGenerationService.FORWARD_PATH)
+    public Mono<ResponseEntity<ImageGenerationResponse>> generateImage(
+            @Valid @RequestBody ImageGenerationRequest request,
+            @RequestHeader(value = CoordinatedImageGenerationService.SECRET_HEADER, required = false) String secret) {
+        if (!clusterConfig.isEnabled() || !clusterConfig.secretMatches(secret)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new ImageGenerationResponse("Forwarding is not allowed")));
+        }
+        return coordinatedImageGenerationService.generateLocally(request)
+                .map(result -> ResponseEntity.ok()
+                        .header(CoordinatedImageGenerationService.SOURCE_HEADER, result.source().name())
+                        .body(result.response()));
+    }
+}
@@ -0,0 +1,97 @@
+package com.playground.backend.controller;
+
+import com.playground.backend.dto.GridCell;
+import com.playground.backend.dto.GridGenerationRequest;
+import com.playground.backend.service.GridGenerationService;
+import com.playground.backend.service.UsageAccountingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/api")
+@Tag(name = "Image Generation", description = "APIs for generating images using FAL.ai flux-pro model")
+public class GridGenerationController {
+
+    private final GridGenerationService gridGenerationService;
+
+    @Autowired
+    public GridGenerationController(GridGenerationService gridGenerationService) {
+        this.gridGenerationService = gridGenerationService;
+    }
+
+    @PostMapping(value = "/generate-image/grid", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(
+        summary = "Generate a grid of images",
+        description = "Expands a base request across prompt suffixes, aspect ratios and seed ranges and streams " +
+                    "one cell per line (application/x-ndjson) as the cells complete. Identical cells are generated " +
+                    "once and cached cells are returned without an upstream call.",
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            description = "Base request and sweep axes",
+            required = true,
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = GridGenerationRequest.class),
+                examples = @ExampleObject(
+                    name = "Seed and aspect ratio sweep",
+                    summary = "Four seeds in two aspect ratios and two styles",
+                    value = """
+                    {
+                      "base": {
+                        "prompt": "A lighthouse on a cliff at dawn",
+                        "num_images": 1
+                      },
+                      "seed_ranges": [{"start": 1000, "count": 4}],
+                      "aspect_ratios": ["1:1", "16:9"],
+                      "prompt_suffixes": [", watercolor", ", pencil sketch"]
+                    }
+                    """
+                )
+            )
+        )
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Grid cells, one JSON object per line in completion order",
+            content = @Content(
+                mediaType = "application/x-ndjson",
+                schema = @Schema(implementation = GridCell.class),
+                examples = @ExampleObject(
+                    name = "Grid cell",
+                    value = """
+                    {"index":3,"prompt_suffix":", watercolor","aspect_ratio":"1:1","seed":1003,"cached":false,"response":{"images":[{"url":"https://fal.media/files/panda/grid.jpg","width":2048,"height":2048,"content_type":"image/jpeg"}],"seed":1003,"has_nsfw_concepts":[false],"status":"success"}}
+                    """
+                )
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid base request, or the grid expands to too many cells",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    public Flux<GridCell> generateGrid(
+            @Parameter(description = "Base request and sweep axes", required = true)
+            @Valid @RequestBody GridGenerationRequest request,
+            @Parameter(description = "Tenant the generation is billed to, defaults to \"anonymous\"")
+            @RequestHeader(value = ImageGenerationController.TENANT_HEADER, required = false)
+            @Pattern(regexp = ImageGenerationController.TENANT_PATTERN,
+                    message = "Tenant id must match " + ImageGenerationController.TENANT_PATTERN) String tenant,
+            @Parameter(description = "Omit the echoed prompt and timings from the cell responses")
+            @RequestParam(defaultValue = "false") boolean compact) {
+
+        return gridGenerationService.generate(UsageAccountingService.resolveTenant(tenant), request, compact);
+    }
+}
@@ -2,7 +2,11 @@ package com.playground.backend.controller;
 
 import com.playground.backend.dto.ImageGenerationRequest;
 import com.playground.backend.dto.ImageGenerationResponse;
-import com.playground.backend.service.FalImageGenerationService;
+import com.playground.backend.logging.PromptLog;
+import com.playground.backend.logging.RateLimitedLogger;
+import com.playground.backend.service.CoordinatedImageGenerationService;
+import com.playground.backend.service.GenerationResult;
+import com.playground.backend.service.UsageAccountingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,6 +16,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +26,7 @@ import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api")
@@ -28,19 +34,28 @@ import java.util.Map;
 public class ImageGenerationController {
 
     private static final Logger logger = LoggerFactory.getLogger(ImageGenerationController.class);
+    private static final RateLimitedLogger errorLogger = new RateLimitedLogger(logger, 5, 1, TimeUnit.MINUTES);
 
-    private final FalImageGenerationService imageGenerationService;
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+    public static final String TENANT_PATTERN = "[A-Za-z0-9._-]{1,64}";
+
+    private final CoordinatedImageGenerationService imageGenerationService;
+    private final UsageAccountingService usageAccountingService;
 
     @Autowired
-    public ImageGenerationController(FalImageGenerationService imageGenerationService) {
+    public ImageGenerationController(CoordinatedImageGenerationService imageGenerationService,
+                                     UsageAccountingService usageAccountingService) {
         this.imageGenerationService = imageGenerationService;
+        this.usageAccountingService = usageAccountingService;
     }
 
     @PostMapping("/generate-image")
     @Operation(
         summary = "Generate images using FAL.ai flux-pro model",
         description = "Generates images based on a text prompt using the FAL.ai flux-pro/v1.1-ultra model. " +
-                    "Supports various parameters like number of images, aspect ratio, safety settings, and output format.",
+                    "Supports various parameters like number of images, aspect ratio, safety settings, and output format. " +
+                    "Besides JSON, requests and responses can be encoded as CBOR (application/cbor) or Smile " +
+                    "(application/x-jackson-smile) through the Content-Type and Accept headers.",
         requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
             description = "Image generation request parameters",
             required = true,
@@ -132,6 +147,26 @@ public class ImageGenerationController {
                 }
             )
         ),
+        @ApiResponse(
+            responseCode = "429",
+            description = "Monthly budget of the tenant exceeded",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ImageGenerationResponse.class),
+                examples = {
+                    @ExampleObject(
+                        name = "Budget Exceeded",
+                        summary = "Tenant over budget",
+                        value = """
+                        {
+                          "status": "error",
+                          "error": "Monthly budget of 50 USD exceeded for tenant 'acme'"
+                        }
+                        """
+                    )
+                }
+            )
+        ),
         @ApiResponse(
             responseCode = "500",
             description = "Internal server error or FAL.ai API error",
@@ -155,11 +190,27 @@ public class ImageGenerationController {
     })
     public Mono<ResponseEntity<ImageGenerationResponse>> generateImage(
             @Parameter(description = "Image generation request parameters", required = true)
-            @Valid @RequestBody ImageGenerationRequest request) {
+            @Valid @RequestBody ImageGenerationRequest request,
+            @Parameter(description = "Tenant the generation is billed to, defaults to \"anonymous\"")
+            @RequestHeader(value = TENANT_HEADER, required = false)
+            @Pattern(regexp = TENANT_PATTERN, message = "Tenant id must match " + TENANT_PATTERN) String tenant,
+            @Parameter(description = "Omit the echoed prompt and timings from the response")
+            @RequestParam(defaultValue = "false") boolean compact) {
+
+        logger.info("Received image generation request: prompt[{}] num_images={} aspect_ratio={} output_format={}",
+                PromptLog.describe(request.getPrompt()), request.getNumImages(),
+                request.getAspectRatio(), request.getOutputFormat());
 
-        logger.info("Received image generation request with prompt: {}", request.getPrompt());
+        String tenantId = UsageAccountingService.resolveTenant(tenant);
+        UsageAccountingService.Reservation reservation = usageAccountingService.admit(tenantId, request);
+        long start = System.nanoTime();
 
         return imageGenerationService.generateImage(request)
+                .doOnNext(result -> usageAccountingService.record(reservation, result, System.nanoTime() - start))
+                .doOnError(error -> usageAccountingService.record(reservation, null, System.nanoTime() - start))
+                .doOnCancel(() -> usageAccountingService.abandon(reservation, System.nanoTime() - start))
+                .map(GenerationResult::response)
+                .map(response -> compact ? response.withoutEcho() : response)
                 .map(response -> {
                     if ("error".equals(response.getStatus())) {
                         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
@@ -167,7 +218,7 @@ public class ImageGenerationController {
                     return ResponseEntity.ok(response);
                 })
                 .onErrorResume(error -> {
-                    logger.error("Unexpected error in image generation: {}", error.getMessage(), error);
+                    errorLogger.error("Unexpected error in image generation", error);
                     ImageGenerationResponse errorResponse = new ImageGenerationResponse(
                             "Unexpected error: " + error.getMessage());
                     return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,61 @@
+package com.playground.backend.controller;
+
+import com.playground.backend.config.ClusterConfig;
+import com.playground.backend.dto.UsageReport;
+import com.playground.backend.exception.ForbiddenException;
+import com.playground.backend.service.CoordinatedImageGenerationService;
+import com.playground.backend.service.UsageAccountingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Pattern;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/usage")
+@Tag(name = "Usage", description = "Image generation usage and estimated cost per tenant")
+public class UsageController {
+
+    private final UsageAccountingService usageAccountingService;
+    private final ClusterConfig clusterConfig;
+
+    @Autowired
+    public UsageController(UsageAccountingService usageAccountingService, ClusterConfig clusterConfig) {
+        this.usageAccountingService = usageAccountingService;
+        this.clusterConfig = clusterConfig;
+    }
+
+    @GetMapping
+    @Operation(
+        summary = "Usage of all tenants",
+        description = "Requests, images, errors, average upstream latency and estimated cost of every tenant " +
+                    "in the current month, as seen by this instance. Internal callers only: requires the " +
+                    "cluster secret in X-Cluster-Secret"
+    )
+    public List<UsageReport> allUsage(
+            @Parameter(hidden = true)
+            @RequestHeader(value = CoordinatedImageGenerationService.SECRET_HEADER, required = false) String secret) {
+        if (!clusterConfig.secretMatches(secret)) {
+            throw new ForbiddenException("Usage of all tenants is only available to internal callers");
+        }
+        return usageAccountingService.report();
+    }
+
+    @GetMapping("/{tenant}")
+    @Operation(
+        summary = "Usage of one tenant",
+        description = "Usage, estimated cost and budget of a tenant in the current month, as seen by this instance"
+    )
+    public UsageReport usage(
+            @Parameter(description = "Tenant id", example = "acme")
+            @PathVariable @Pattern(regexp = ImageGenerationController.TENANT_PATTERN) String tenant) {
+        return usageAccountingService.report(tenant);
+    }
+}
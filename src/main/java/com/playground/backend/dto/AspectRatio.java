@@ -0,0 +1,34 @@
+package com.playground.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Aspect ratios supported by the flux-pro/v1.1-ultra model.
+ */
+public enum AspectRatio {
+    RATIO_21_9("21:9"),
+    RATIO_16_9("16:9"),
+    RATIO_4_3("4:3"),
+    RATIO_3_2("3:2"),
+    RATIO_1_1("1:1"),
+    RATIO_2_3("2:3"),
+    RATIO_3_4("3:4"),
+    RATIO_9_16("9:16"),
+    RATIO_9_21("9:21");
+
+    private final String value;
+
+    AspectRatio(String value) {
+        this.value = value;
+    }
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
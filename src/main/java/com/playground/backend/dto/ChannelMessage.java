@@ -0,0 +1,126 @@
+package com.playground.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonValue;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Frame of the generation channel ({@code /api/ws/generate}). Clients send {@code generate} and
+ * {@code cancel}; the server answers each {@code id} with exactly one {@code result}, {@code error}
+ * or {@code cancelled}.
+ */
+@Schema(description = "Message exchanged over the generation WebSocket channel")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChannelMessage {
+
+    public enum Type {
+        GENERATE("generate"),
+        CANCEL("cancel"),
+        RESULT("result"),
+        ERROR("error"),
+        CANCELLED("cancelled");
+
+        private final String value;
+
+        Type(String value) {
+            this.value = value;
+        }
+
+        @JsonValue
+        public String getValue() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+
+    @Schema(description = "Message type", example = "generate")
+    private Type type;
+
+    @Schema(description = "Client-chosen id correlating a generation with its result", example = "42")
+    private String id;
+
+    @Schema(description = "Generation parameters, for generate messages")
+    private ImageGenerationRequest request;
+
+    @Schema(description = "Omit the echoed prompt and timings from the result, for generate messages")
+    private Boolean compact;
+
+    @Schema(description = "Generated images, for result messages")
+    private ImageGenerationResponse response;
+
+    @Schema(description = "Error message, for error messages")
+    private String error;
+
+    // Default constructor
+    public ChannelMessage() {}
+
+    public ChannelMessage(Type type, String id) {
+        this.type = type;
+        this.id = id;
+    }
+
+    public static ChannelMessage result(String id, ImageGenerationResponse response) {
+        ChannelMessage message = new ChannelMessage(Type.RESULT, id);
+        message.setResponse(response);
+        return message;
+    }
+
+    public static ChannelMessage error(String id, String error) {
+        ChannelMessage message = new ChannelMessage(Type.ERROR, id);
+        message.setError(error);
+        return message;
+    }
+
+    // Getters and Setters
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public ImageGenerationRequest getRequest() {
+        return request;
+    }
+
+    public void setRequest(ImageGenerationRequest request) {
+        this.request = request;
+    }
+
+    public Boolean getCompact() {
+        return compact;
+    }
+
+    public void setCompact(Boolean compact) {
+        this.compact = compact;
+    }
+
+    public ImageGenerationResponse getResponse() {
+        return response;
+    }
+
+    public void setResponse(ImageGenerationResponse response) {
+        this.response = response;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
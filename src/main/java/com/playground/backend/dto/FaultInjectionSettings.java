@@ -0,0 +1,166 @@
+package com.playground.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+/**
+ * Faults injected into calls to FAL.ai. Latency is added independently of the other faults; of
+ * error, reset, truncated, malformed and slow drip at most one is applied per call, so their rates
+ * must not add up to more than 1.
+ */
+@Schema(description = "Faults injected into FAL.ai calls, each with the fraction of calls it applies to")
+public class FaultInjectionSettings {
+
+    @Schema(description = "Delay added before the call", example = "2000")
+    @JsonProperty("latency_ms")
+    @Min(value = 0, message = "Latency cannot be negative")
+    private long latencyMs;
+
+    @Schema(description = "Fraction of calls delayed by latency_ms", example = "0.5")
+    @JsonProperty("latency_rate")
+    @DecimalMin(value = "0.0", message = "Rates must be between 0 and 1")
+    @DecimalMax(value = "1.0", message = "Rates must be between 0 and 1")
+    private double latencyRate;
+
+    @Schema(description = "Fraction of calls answered with error_status instead of reaching FAL.ai", example = "0.1")
+    @JsonProperty("error_rate")
+    @DecimalMin(value = "0.0", message = "Rates must be between 0 and 1")
+    @DecimalMax(value = "1.0", message = "Rates must be between 0 and 1")
+    private double errorRate;
+
+    @Schema(description = "HTTP status of injected errors", example = "503")
+    @JsonProperty("error_status")
+    @Min(value = 400, message = "Error status must be between 400 and 599")
+    @Max(value = 599, message = "Error status must be between 400 and 599")
+    private int errorStatus = 503;
+
+    @Schema(description = "Fraction of calls failing with a connection reset", example = "0.05")
+    @JsonProperty("reset_rate")
+    @DecimalMin(value = "0.0", message = "Rates must be between 0 and 1")
+    @DecimalMax(value = "1.0", message = "Rates must be between 0 and 1")
+    private double resetRate;
+
+    @Schema(description = "Fraction of calls whose response body is cut in half", example = "0.05")
+    @JsonProperty("truncated_rate")
+    @DecimalMin(value = "0.0", message = "Rates must be between 0 and 1")
+    @DecimalMax(value = "1.0", message = "Rates must be between 0 and 1")
+    private double truncatedRate;
+
+    @Schema(description = "Fraction of calls whose response body is valid JSON of the wrong shape", example = "0.05")
+    @JsonProperty("malformed_rate")
+    @DecimalMin(value = "0.0", message = "Rates must be between 0 and 1")
+    @DecimalMax(value = "1.0", message = "Rates must be between 0 and 1")
+    private double malformedRate;
+
+    @Schema(description = "Fraction of calls whose response body arrives in small delayed chunks", example = "0.05")
+    @JsonProperty("slow_drip_rate")
+    @DecimalMin(value = "0.0", message = "Rates must be between 0 and 1")
+    @DecimalMax(value = "1.0", message = "Rates must be between 0 and 1")
+    private double slowDripRate;
+
+    @Schema(description = "Delay between chunks of a slow-drip body", example = "200")
+    @JsonProperty("drip_interval_ms")
+    @Min(value = 1, message = "Drip interval must be at least 1 ms")
+    private long dripIntervalMs = 200;
+
+    @Schema(description = "Size of the chunks of a slow-drip body", example = "64")
+    @JsonProperty("drip_chunk_bytes")
+    @Min(value = 1, message = "Drip chunk size must be at least 1 byte")
+    private int dripChunkBytes = 64;
+
+    // Default constructor
+    public FaultInjectionSettings() {}
+
+    @JsonIgnore
+    @AssertTrue(message = "error_rate, reset_rate, truncated_rate, malformed_rate and slow_drip_rate cannot add up to more than 1")
+    public boolean isExclusiveRatesValid() {
+        return errorRate + resetRate + truncatedRate + malformedRate + slowDripRate <= 1.0 + 1e-9;
+    }
+
+    // Getters and Setters
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public void setLatencyMs(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    public double getLatencyRate() {
+        return latencyRate;
+    }
+
+    public void setLatencyRate(double latencyRate) {
+        this.latencyRate = latencyRate;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public int getErrorStatus() {
+        return errorStatus;
+    }
+
+    public void setErrorStatus(int errorStatus) {
+        this.errorStatus = errorStatus;
+    }
+
+    public double getResetRate() {
+        return resetRate;
+    }
+
+    public void setResetRate(double resetRate) {
+        this.resetRate = resetRate;
+    }
+
+    public double getTruncatedRate() {
+        return truncatedRate;
+    }
+
+    public void setTruncatedRate(double truncatedRate) {
+        this.truncatedRate = truncatedRate;
+    }
+
+    public double getMalformedRate() {
+        return malformedRate;
+    }
+
+    public void setMalformedRate(double malformedRate) {
+        this.malformedRate = malformedRate;
+    }
+
+    public double getSlowDripRate() {
+        return slowDripRate;
+    }
+
+    public void setSlowDripRate(double slowDripRate) {
+        this.slowDripRate = slowDripRate;
+    }
+
+    public long getDripIntervalMs() {
+        return dripIntervalMs;
+    }
+
+    public void setDripIntervalMs(long dripIntervalMs) {
+        this.dripIntervalMs = dripIntervalMs;
+    }
+
+    public int getDripChunkBytes() {
+        return dripChunkBytes;
+    }
+
+    public void setDripChunkBytes(int dripChunkBytes) {
+        this.dripChunkBytes = dripChunkBytes;
+    }
+}
@@ -0,0 +1,94 @@
+package com.playground.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Result of one grid cell, streamed as soon as it completes")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"index", "prompt_suffix", "aspect_ratio", "seed", "cached", "response"})
+public class GridCell {
+
+    @Schema(description = "Position of the cell in the expanded grid: prompt suffixes, then aspect ratios, then seeds", example = "0")
+    private int index;
+
+    @Schema(description = "Prompt suffix of the cell", example = ", watercolor")
+    @JsonProperty("prompt_suffix")
+    private String promptSuffix;
+
+    @Schema(description = "Aspect ratio of the cell", example = "1:1")
+    @JsonProperty("aspect_ratio")
+    private AspectRatio aspectRatio;
+
+    @Schema(description = "Seed of the cell", example = "1000")
+    private Long seed;
+
+    @Schema(description = "Whether the result was served from cache without an upstream call")
+    private boolean cached;
+
+    @Schema(description = "Generation result of the cell")
+    private ImageGenerationResponse response;
+
+    // Default constructor
+    public GridCell() {}
+
+    public GridCell(int index, String promptSuffix, AspectRatio aspectRatio, Long seed, boolean cached,
+                    ImageGenerationResponse response) {
+        this.index = index;
+        this.promptSuffix = promptSuffix;
+        this.aspectRatio = aspectRatio;
+        this.seed = seed;
+        this.cached = cached;
+        this.response = response;
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getPromptSuffix() {
+        return promptSuffix;
+    }
+
+    public void setPromptSuffix(String promptSuffix) {
+        this.promptSuffix = promptSuffix;
+    }
+
+    public AspectRatio getAspectRatio() {
+        return aspectRatio;
+    }
+
+    public void setAspectRatio(AspectRatio aspectRatio) {
+        this.aspectRatio = aspectRatio;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    public boolean isCached() {
+        return cached;
+    }
+
+    public void setCached(boolean cached) {
+        this.cached = cached;
+    }
+
+    public ImageGenerationResponse getResponse() {
+        return response;
+    }
+
+    public void setResponse(ImageGenerationResponse response) {
+        this.response = response;
+    }
+}
@@ -0,0 +1,114 @@
+package com.playground.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "Grid of image generations: a base request swept across seeds, aspect ratios and prompt suffixes")
+public class GridGenerationRequest {
+
+    public static final int MAX_SEED_COUNT = 1000;
+    public static final int MAX_SUFFIX_LENGTH = 500;
+
+    @Schema(description = "Request every cell is derived from")
+    @NotNull(message = "Base request is required")
+    @Valid
+    private ImageGenerationRequest base;
+
+    @Schema(description = "Seed ranges to sweep; the base seed is used if empty")
+    @JsonProperty("seed_ranges")
+    @Valid
+    private List<@NotNull SeedRange> seedRanges = new ArrayList<>();
+
+    @Schema(description = "Aspect ratios to sweep; the base aspect ratio is used if empty", example = "[\"1:1\", \"16:9\"]")
+    @JsonProperty("aspect_ratios")
+    private List<@NotNull AspectRatio> aspectRatios = new ArrayList<>();
+
+    @Schema(description = "Suffixes appended to the base prompt; the base prompt is used as is if empty",
+            example = "[\", watercolor\", \", pencil sketch\"]")
+    @JsonProperty("prompt_suffixes")
+    private List<@NotNull @Size(max = MAX_SUFFIX_LENGTH, message = "Prompt suffix cannot exceed " + MAX_SUFFIX_LENGTH + " characters") String> promptSuffixes = new ArrayList<>();
+
+    // Default constructor
+    public GridGenerationRequest() {}
+
+    // Getters and Setters
+    public ImageGenerationRequest getBase() {
+        return base;
+    }
+
+    public void setBase(ImageGenerationRequest base) {
+        this.base = base;
+    }
+
+    public List<SeedRange> getSeedRanges() {
+        return seedRanges;
+    }
+
+    public void setSeedRanges(List<SeedRange> seedRanges) {
+        this.seedRanges = seedRanges;
+    }
+
+    public List<AspectRatio> getAspectRatios() {
+        return aspectRatios;
+    }
+
+    public void setAspectRatios(List<AspectRatio> aspectRatios) {
+        this.aspectRatios = aspectRatios;
+    }
+
+    public List<String> getPromptSuffixes() {
+        return promptSuffixes;
+    }
+
+    public void setPromptSuffixes(List<String> promptSuffixes) {
+        this.promptSuffixes = promptSuffixes;
+    }
+
+    @Schema(description = "Consecutive seeds starting at start")
+    public static class SeedRange {
+
+        @Schema(description = "First seed", example = "1000")
+        @NotNull(message = "Seed range start is required")
+        @Min(value = 0, message = "Seed cannot be negative")
+        private Long start;
+
+        @Schema(description = "Number of seeds", example = "4", minimum = "1", maximum = "1000")
+        @NotNull(message = "Seed range count is required")
+        @Min(value = 1, message = "Seed range count must be at least 1")
+        @Max(value = MAX_SEED_COUNT, message = "Seed range count cannot exceed " + MAX_SEED_COUNT)
+        private Integer count;
+
+        // Default constructor
+        public SeedRange() {}
+
+        public SeedRange(Long start, Integer count) {
+            this.start = start;
+            this.count = count;
+        }
+
+        // Getters and Setters
+        public Long getStart() {
+            return start;
+        }
+
+        public void setStart(Long start) {
+            this.start = start;
+        }
+
+        public Integer getCount() {
+            return count;
+        }
+
+        public void setCount(Integer count) {
+            this.count = count;
+        }
+    }
+}
@@ -1,17 +1,25 @@
 package com.playground.backend.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.playground.backend.validation.MaxUtf8Bytes;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Size;
 
 @Schema(description = "Request for image generation using FAL.ai flux-pro model")
 public class ImageGenerationRequest {
 
-    @Schema(description = "Text prompt for image generation", example = "Extreme close-up of a single tiger eye, direct frontal view. Detailed iris and pupil.")
+    public static final int MAX_PROMPT_LENGTH = 2000;
+    public static final int MAX_PROMPT_BYTES = 4096;
+
+    @Schema(description = "Text prompt for image generation", example = "Extreme close-up of a single tiger eye, direct frontal view. Detailed iris and pupil.",
+            maxLength = MAX_PROMPT_LENGTH)
     @NotBlank(message = "Prompt is required")
+    @Size(max = MAX_PROMPT_LENGTH, message = "Prompt cannot exceed " + MAX_PROMPT_LENGTH + " characters")
+    @MaxUtf8Bytes(value = MAX_PROMPT_BYTES, message = "Prompt cannot exceed " + MAX_PROMPT_BYTES + " bytes")
     private String prompt;
 
     @Schema(description = "Number of images to generate", example = "1", minimum = "1", maximum = "4")
@@ -27,15 +35,20 @@ public class ImageGenerationRequest {
 
     @Schema(description = "Output format for generated images", example = "jpeg", allowableValues = {"jpeg", "png"})
     @JsonProperty("output_format")
-    private String outputFormat = "jpeg";
+    private OutputFormat outputFormat = OutputFormat.JPEG;
 
-    @Schema(description = "Safety tolerance level", example = "2", allowableValues = {"1", "2", "3"})
+    @Schema(description = "Safety tolerance level", example = "2", allowableValues = {"1", "2", "3", "4", "5", "6"})
     @JsonProperty("safety_tolerance")
-    private String safetyTolerance = "2";
+    private SafetyTolerance safetyTolerance = SafetyTolerance.LEVEL_2;
 
-    @Schema(description = "Aspect ratio for generated images", example = "16:9", allowableValues = {"1:1", "16:9", "9:16", "4:3", "3:4"})
+    @Schema(description = "Aspect ratio for generated images", example = "16:9",
+            allowableValues = {"21:9", "16:9", "4:3", "3:2", "1:1", "2:3", "3:4", "9:16", "9:21"})
     @JsonProperty("aspect_ratio")
-    private String aspectRatio = "16:9";
+    private AspectRatio aspectRatio = AspectRatio.RATIO_16_9;
+
+    @Schema(description = "Seed for reproducible results; identical seeded requests may be served from cache", example = "1627638640")
+    @Min(value = 0, message = "Seed cannot be negative")
+    private Long seed;
 
     // Default constructor
     public ImageGenerationRequest() {}
@@ -46,6 +59,19 @@ public class ImageGenerationRequest {
         this.numImages = numImages;
     }
 
+    /**
+     * Returns an independent copy, e.g. to vary one field per grid cell.
+     */
+    public ImageGenerationRequest copy() {
+        ImageGenerationRequest copy = new ImageGenerationRequest(prompt, numImages);
+        copy.enableSafetyChecker = enableSafetyChecker;
+        copy.outputFormat = outputFormat;
+        copy.safetyTolerance = safetyTolerance;
+        copy.aspectRatio = aspectRatio;
+        copy.seed = seed;
+        return copy;
+    }
+
     // Getters and Setters
     public String getPrompt() {
         return prompt;
@@ -71,27 +97,48 @@ public class ImageGenerationRequest {
         this.enableSafetyChecker = enableSafetyChecker;
     }
 
-    public String getOutputFormat() {
+    public OutputFormat getOutputFormat() {
         return outputFormat;
     }
 
-    public void setOutputFormat(String outputFormat) {
+    public void setOutputFormat(OutputFormat outputFormat) {
         this.outputFormat = outputFormat;
     }
 
-    public String getSafetyTolerance() {
+    public SafetyTolerance getSafetyTolerance() {
         return safetyTolerance;
     }
 
-    public void setSafetyTolerance(String safetyTolerance) {
+    public void setSafetyTolerance(SafetyTolerance safetyTolerance) {
         this.safetyTolerance = safetyTolerance;
     }
 
-    public String getAspectRatio() {
+    public AspectRatio getAspectRatio() {
         return aspectRatio;
     }
 
-    public void setAspectRatio(String aspectRatio) {
+    public void setAspectRatio(AspectRatio aspectRatio) {
         this.aspectRatio = aspectRatio;
     }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Identifies the result of a seeded request: two requests with the same key produce the same
+     * images. Returns {@code null} for unseeded requests, whose results are not reproducible.
+     */
+    public String cacheKey(String modelId) {
+        if (seed == null) {
+            return null;
+        }
+        return String.join("|", modelId, String.valueOf(numImages), String.valueOf(enableSafetyChecker),
+                String.valueOf(outputFormat), String.valueOf(safetyTolerance), String.valueOf(aspectRatio),
+                String.valueOf(seed), prompt);
+    }
 } 
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.playground.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.util.List;
@@ -49,6 +50,21 @@ public class ImageGenerationResponse {
         this.status = "error";
     }
 
+    /**
+     * Returns a copy without the fields echoed from the request and upstream, the prompt and the
+     * timings, that also omits null fields when serialized. Responses may be shared through the
+     * cache, so they are copied rather than modified.
+     */
+    public ImageGenerationResponse withoutEcho() {
+        ImageGenerationResponse copy = new Compact();
+        copy.images = images;
+        copy.seed = seed;
+        copy.hasNsfwConcepts = hasNsfwConcepts;
+        copy.status = status;
+        copy.error = error;
+        return copy;
+    }
+
     // Getters and Setters
     public List<GeneratedImage> getImages() {
         return images;
@@ -165,4 +181,12 @@ public class ImageGenerationResponse {
             this.contentType = contentType;
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Compact form returned by {@link #withoutEcho()}. The full form keeps its null fields, as
+     * clients of the default payload may rely on them.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static final class Compact extends ImageGenerationResponse {
+    }
+}
@@ -0,0 +1,27 @@
+package com.playground.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Image formats supported by the flux-pro model.
+ */
+public enum OutputFormat {
+    JPEG("jpeg"),
+    PNG("png");
+
+    private final String value;
+
+    OutputFormat(String value) {
+        this.value = value;
+    }
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
@@ -0,0 +1,31 @@
+package com.playground.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Safety tolerance levels, from 1 (most strict) to 6 (most permissive).
+ */
+public enum SafetyTolerance {
+    LEVEL_1("1"),
+    LEVEL_2("2"),
+    LEVEL_3("3"),
+    LEVEL_4("4"),
+    LEVEL_5("5"),
+    LEVEL_6("6");
+
+    private final String value;
+
+    SafetyTolerance(String value) {
+        this.value = value;
+    }
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
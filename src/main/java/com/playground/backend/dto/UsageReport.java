@@ -0,0 +1,118 @@
+package com.playground.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Image generation usage of a tenant in the current month")
+public class UsageReport {
+
+    @Schema(description = "Tenant id", example = "acme")
+    private String tenant;
+
+    @Schema(description = "Calendar month in UTC", example = "2024-01")
+    private String period;
+
+    @Schema(description = "Number of generation requests sent upstream")
+    private long requests;
+
+    @Schema(description = "Number of images generated")
+    private long images;
+
+    @Schema(description = "Number of failed upstream requests")
+    private long errors;
+
+    @Schema(description = "Estimated upstream cost in USD")
+    @JsonProperty("estimated_cost_usd")
+    private BigDecimal estimatedCostUsd;
+
+    @Schema(description = "Average upstream latency in milliseconds")
+    @JsonProperty("average_latency_ms")
+    private double averageLatencyMs;
+
+    @Schema(description = "Monthly budget in USD, absent if unlimited")
+    @JsonProperty("budget_usd")
+    private BigDecimal budgetUsd;
+
+    // Default constructor
+    public UsageReport() {}
+
+    // Constructor with all fields
+    public UsageReport(String tenant, String period, long requests, long images, long errors,
+                       BigDecimal estimatedCostUsd, double averageLatencyMs, BigDecimal budgetUsd) {
+        this.tenant = tenant;
+        this.period = period;
+        this.requests = requests;
+        this.images = images;
+        this.errors = errors;
+        this.estimatedCostUsd = estimatedCostUsd;
+        this.averageLatencyMs = averageLatencyMs;
+        this.budgetUsd = budgetUsd;
+    }
+
+    // Getters and Setters
+    public String getTenant() {
+        return tenant;
+    }
+
+    public void setTenant(String tenant) {
+        this.tenant = tenant;
+    }
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(String period) {
+        this.period = period;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public void setRequests(long requests) {
+        this.requests = requests;
+    }
+
+    public long getImages() {
+        return images;
+    }
+
+    public void setImages(long images) {
+        this.images = images;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public void setErrors(long errors) {
+        this.errors = errors;
+    }
+
+    public BigDecimal getEstimatedCostUsd() {
+        return estimatedCostUsd;
+    }
+
+    public void setEstimatedCostUsd(BigDecimal estimatedCostUsd) {
+        this.estimatedCostUsd = estimatedCostUsd;
+    }
+
+    public double getAverageLatencyMs() {
+        return averageLatencyMs;
+    }
+
+    public void setAverageLatencyMs(double averageLatencyMs) {
+        this.averageLatencyMs = averageLatencyMs;
+    }
+
+    public BigDecimal getBudgetUsd() {
+        return budgetUsd;
+    }
+
+    public void setBudgetUsd(BigDecimal budgetUsd) {
+        this.budgetUsd = budgetUsd;
+    }
+}
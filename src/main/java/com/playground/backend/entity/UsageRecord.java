@@ -0,0 +1,105 @@
+package com.playground.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * Usage of one tenant on one replica accumulated between two flushes. Rows are append-only; the
+ * totals of a period are the sum of its rows.
+ */
+@Entity
+@Table(name = "usage_record", indexes = @Index(name = "idx_usage_record_period", columnList = "period, replica"))
+public class UsageRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Instance that wrote the row, see playground.usage.replica
+    @Column(nullable = false, length = 64)
+    private String replica;
+
+    @Column(nullable = false, length = 64)
+    private String tenant;
+
+    // Calendar month in UTC, e.g. 2024-01
+    @Column(nullable = false, length = 7)
+    private String period;
+
+    @Column(name = "flushed_at", nullable = false)
+    private Instant flushedAt;
+
+    private long requests;
+    private long images;
+    private long errors;
+
+    @Column(name = "cost_micros")
+    private long costMicros;
+
+    @Column(name = "latency_micros")
+    private long latencyMicros;
+
+    // Default constructor
+    public UsageRecord() {}
+
+    public UsageRecord(String replica, String tenant, String period, Instant flushedAt, long requests,
+                       long images, long errors, long costMicros, long latencyMicros) {
+        this.replica = replica;
+        this.tenant = tenant;
+        this.period = period;
+        this.flushedAt = flushedAt;
+        this.requests = requests;
+        this.images = images;
+        this.errors = errors;
+        this.costMicros = costMicros;
+        this.latencyMicros = latencyMicros;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getReplica() {
+        return replica;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public Instant getFlushedAt() {
+        return flushedAt;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getImages() {
+        return images;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getCostMicros() {
+        return costMicros;
+    }
+
+    public long getLatencyMicros() {
+        return latencyMicros;
+    }
+}
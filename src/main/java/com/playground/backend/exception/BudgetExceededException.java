@@ -0,0 +1,18 @@
+package com.playground.backend.exception;
+
+/**
+ * Thrown when a request would take a tenant over its monthly generation budget.
+ */
+public class BudgetExceededException extends RuntimeException {
+
+    private final String tenant;
+
+    public BudgetExceededException(String tenant, String message) {
+        super(message);
+        this.tenant = tenant;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+}
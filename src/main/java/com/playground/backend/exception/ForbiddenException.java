@@ -0,0 +1,11 @@
+package com.playground.backend.exception;
+
+/**
+ * Thrown when an endpoint reserved for internal callers is called without a valid cluster secret.
+ */
+public class ForbiddenException extends RuntimeException {
+
+    public ForbiddenException(String message) {
+        super(message);
+    }
+}
@@ -1,22 +1,35 @@
 package com.playground.backend.exception;
 
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import com.playground.backend.dto.ImageGenerationResponse;
+import com.playground.backend.logging.RateLimitedLogger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Maps exceptions to {@link ImageGenerationResponse} errors. Error bodies are always JSON, whatever
+ * the client accepts: an NDJSON-only grid client or a CBOR client still gets a readable error
+ * instead of a 406 from content negotiation.
+ */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+    private static final RateLimitedLogger errorLogger = new RateLimitedLogger(logger, 5, 1, TimeUnit.MINUTES);
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ImageGenerationResponse> handleValidationExceptions(MethodArgumentNotValidException ex) {
@@ -31,14 +44,82 @@ public class GlobalExceptionHandler {
         logger.warn("Validation error: {}", errorMessage);
         
         return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ImageGenerationResponse(errorMessage));
+    }
+
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ImageGenerationResponse> handleMethodValidationExceptions(HandlerMethodValidationException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getAllValidationResults().forEach(result -> errors.put(
+                result.getMethodParameter().getParameterName(),
+                result.getResolvableErrors().get(0).getDefaultMessage()));
+
+        String errorMessage = "Validation failed: " + errors.toString();
+        logger.warn("Validation error: {}", errorMessage);
+
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ImageGenerationResponse(errorMessage));
+    }
+
+    @ExceptionHandler(BudgetExceededException.class)
+    public ResponseEntity<ImageGenerationResponse> handleBudgetExceeded(BudgetExceededException ex) {
+        logger.warn("Rejected request of tenant {}: {}", ex.getTenant(), ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ImageGenerationResponse(ex.getMessage()));
+    }
+
+    @ExceptionHandler(ForbiddenException.class)
+    public ResponseEntity<ImageGenerationResponse> handleForbidden(ForbiddenException ex) {
+        logger.warn("Rejected internal request: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ImageGenerationResponse(ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidGridException.class)
+    public ResponseEntity<ImageGenerationResponse> handleInvalidGrid(InvalidGridException ex) {
+        logger.warn("Rejected grid request: {}", ex.getMessage());
+
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ImageGenerationResponse(ex.getMessage()));
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ImageGenerationResponse> handleUnreadableMessage(HttpMessageNotReadableException ex) {
+        Throwable cause = ex.getCause();
+        if (cause instanceof PayloadTooLargeException) {
+            logger.warn("Rejected request body: {}", cause.getMessage());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(new ImageGenerationResponse(cause.getMessage()));
+        }
+
+        String errorMessage = "Malformed request body";
+        if (cause instanceof InvalidFormatException ife && ife.getTargetType() != null
+                && ife.getTargetType().isEnum() && !ife.getPath().isEmpty()) {
+            errorMessage = String.format("Invalid value '%s' for %s, expected one of %s",
+                    ife.getValue(), ife.getPath().get(ife.getPath().size() - 1).getFieldName(),
+                    Arrays.toString(ife.getTargetType().getEnumConstants()));
+        }
+        logger.warn("Unreadable request: {}", errorMessage);
+
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
                 .body(new ImageGenerationResponse(errorMessage));
     }
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ImageGenerationResponse> handleGenericException(Exception ex) {
-        logger.error("Unexpected error occurred: {}", ex.getMessage(), ex);
+        errorLogger.error("Unexpected error occurred", ex);
         
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .contentType(MediaType.APPLICATION_JSON)
                 .body(new ImageGenerationResponse("An unexpected error occurred: " + ex.getMessage()));
     }
 } 
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.playground.backend.exception;
+
+/**
+ * Thrown when a grid request expands to too many cells or to cells that are not valid requests.
+ */
+public class InvalidGridException extends RuntimeException {
+
+    public InvalidGridException(String message) {
+        super(message);
+    }
+}
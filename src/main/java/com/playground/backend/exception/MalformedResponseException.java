@@ -0,0 +1,12 @@
+package com.playground.backend.exception;
+
+/**
+ * Thrown when FAL.ai, or a replica a request was forwarded to, answers with a body that does not
+ * have the expected structure.
+ */
+public class MalformedResponseException extends RuntimeException {
+
+    public MalformedResponseException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,25 @@
+package com.playground.backend.exception;
+
+import java.io.IOException;
+
+/**
+ * Thrown while reading a request body that is larger than the configured limit.
+ * It is an {@link IOException} so that it surfaces from the body stream like any other read failure.
+ */
+public class PayloadTooLargeException extends IOException {
+
+    private final long maxBytes;
+
+    public PayloadTooLargeException(long maxBytes) {
+        super(message(maxBytes));
+        this.maxBytes = maxBytes;
+    }
+
+    public static String message(long maxBytes) {
+        return "Request body exceeds " + maxBytes + " bytes";
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+}
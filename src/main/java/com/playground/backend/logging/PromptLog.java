@@ -0,0 +1,52 @@
+package com.playground.backend.logging;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Describes prompts for log lines without writing the prompt text itself.
+ *
+ * The digest lets identical prompts be correlated across requests, the length gives a feel for
+ * the request size; the full text is only available at TRACE via {@link #truncate(String)}.
+ */
+public final class PromptLog {
+
+    private static final int DIGEST_BYTES = 6;
+    private static final int TRUNCATE_LENGTH = 80;
+
+    private PromptLog() {}
+
+    /**
+     * Returns a lazily rendered {@code len=<chars> sha256=<12 hex chars>} description, so the digest
+     * is only computed when the log statement is actually enabled.
+     */
+    public static Object describe(String prompt) {
+        return new Object() {
+            @Override
+            public String toString() {
+                if (prompt == null) {
+                    return "len=0";
+                }
+                return "len=" + prompt.length() + " sha256=" + digest(prompt);
+            }
+        };
+    }
+
+    public static String truncate(String prompt) {
+        if (prompt == null || prompt.length() <= TRUNCATE_LENGTH) {
+            return prompt;
+        }
+        return prompt.substring(0, TRUNCATE_LENGTH) + "...";
+    }
+
+    static String digest(String prompt) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(prompt.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, DIGEST_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.playground.backend.logging;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs errors with their stack trace at most {@code permitsPerWindow} times per window.
+ *
+ * Further errors in the same window are logged as a single line without the stack trace, and the
+ * first full entry of the next window reports how many stack traces were suppressed. This keeps a
+ * burst of identical upstream failures from turning into megabytes of repeated stack frames.
+ */
+public class RateLimitedLogger {
+
+    private final Logger logger;
+    private final int permitsPerWindow;
+    private final long windowNanos;
+
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger used = new AtomicInteger();
+    private final AtomicInteger suppressed = new AtomicInteger();
+
+    public RateLimitedLogger(Logger logger, int permitsPerWindow, long window, TimeUnit unit) {
+        this.logger = logger;
+        this.permitsPerWindow = permitsPerWindow;
+        this.windowNanos = unit.toNanos(window);
+    }
+
+    public void error(String message, Throwable error) {
+        if (!logger.isErrorEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+
+        if (used.incrementAndGet() <= permitsPerWindow) {
+            int dropped = suppressed.getAndSet(0);
+            if (dropped > 0) {
+                logger.error("{} ({} similar stack traces suppressed)", message, dropped, error);
+            } else {
+                logger.error(message, error);
+            }
+        } else {
+            suppressed.incrementAndGet();
+            logger.error("{}: {}", message, String.valueOf(error));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.playground.backend.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Assigns every request a correlation id, exposed to log statements as the {@code requestId} MDC key
+ * and returned to the client in the {@code X-Request-Id} header.
+ *
+ * A well-formed id sent by the caller (e.g. from the load balancer) is reused. The id is kept in a
+ * request attribute so the async dispatch of reactive handlers logs under the same id.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestCorrelationFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Request-Id";
+    public static final String MDC_KEY = "requestId";
+
+    private static final String ATTRIBUTE = RequestCorrelationFilter.class.getName() + ".requestId";
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String requestId = (String) request.getAttribute(ATTRIBUTE);
+        if (requestId == null) {
+            requestId = request.getHeader(HEADER);
+            if (requestId == null || !VALID_ID.matcher(requestId).matches()) {
+                requestId = UUID.randomUUID().toString();
+            }
+            request.setAttribute(ATTRIBUTE, requestId);
+            response.setHeader(HEADER, requestId);
+        }
+
+        MDC.put(MDC_KEY, requestId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.playground.backend.repository;
+
+import com.playground.backend.entity.UsageRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface UsageRecordRepository extends JpaRepository<UsageRecord, Long> {
+
+    List<UsageRecord> findByPeriodAndReplica(String period, String replica);
+}
@@ -0,0 +1,209 @@
+package com.playground.backend.service;
+
+import com.playground.backend.cluster.ClusterMembership;
+import com.playground.backend.config.CacheConfig;
+import com.playground.backend.config.ClusterConfig;
+import com.playground.backend.config.FalConfig;
+import com.playground.backend.dto.ImageGenerationRequest;
+import com.playground.backend.dto.ImageGenerationResponse;
+import com.playground.backend.exception.MalformedResponseException;
+import com.playground.backend.logging.RequestCorrelationFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Front of {@link FalImageGenerationService} that avoids paying twice for the same seeded request.
+ *
+ * A seeded request is identified by {@link ImageGenerationRequest#cacheKey(String)}. The replica
+ * owning that key on the {@link ClusterMembership} ring serves it: from its response cache, by
+ * joining an identical request already in flight, or by calling FAL.ai. Other replicas forward the
+ * request to the owner and fall back to generating locally only if the owner cannot be reached;
+ * once the owner has the request, its failures and timeouts become error responses. With the
+ * cluster disabled this replica owns every key. Unseeded requests always go straight to FAL.ai.
+ *
+ * Every response is returned as a {@link GenerationResult} naming its source, so that only the
+ * request that caused an upstream call is charged for it. Owners report the source of forwarded
+ * requests in the {@code X-Generation-Source} response header.
+ */
+@Service
+public class CoordinatedImageGenerationService {
+
+    public static final String FORWARD_PATH = "/internal/cluster/generate";
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+    public static final String SOURCE_HEADER = "X-Generation-Source";
+
+    private static final Logger logger = LoggerFactory.getLogger(CoordinatedImageGenerationService.class);
+
+    private final FalImageGenerationService falImageGenerationService;
+    private final ClusterMembership clusterMembership;
+    private final ClusterConfig clusterConfig;
+    private final FalConfig falConfig;
+    private final WebClient webClient;
+
+    private final Map<String, Mono<ImageGenerationResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, CachedResponse> cache;
+    private final long cacheTtlNanos;
+
+    @Autowired
+    public CoordinatedImageGenerationService(FalImageGenerationService falImageGenerationService,
+                                             ClusterMembership clusterMembership, ClusterConfig clusterConfig,
+                                             CacheConfig cacheConfig, FalConfig falConfig,
+                                             WebClient.Builder webClientBuilder) {
+        this.falImageGenerationService = falImageGenerationService;
+        this.clusterMembership = clusterMembership;
+        this.clusterConfig = clusterConfig;
+        this.falConfig = falConfig;
+        this.webClient = webClientBuilder
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+
+        int maxEntries = cacheConfig.getMaxEntries();
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        });
+        this.cacheTtlNanos = cacheConfig.getTtl().toNanos();
+    }
+
+    public Mono<GenerationResult> generateImage(ImageGenerationRequest request) {
+        String key = request.cacheKey(falConfig.getModelId());
+        if (key == null) {
+            return falImageGenerationService.generateImage(request).map(GenerationResult::upstream);
+        }
+
+        String owner = clusterMembership.ownerOf(key);
+        if (owner == null || clusterMembership.isSelf(owner)) {
+            return generateLocally(key, request);
+        }
+        return forward(owner, request, MDC.get(RequestCorrelationFilter.MDC_KEY))
+                .onErrorResume(WebClientRequestException.class, error -> {
+                    // The owner never got the request, so generating here cannot pay for it twice
+                    clusterMembership.onProbe(owner, false);
+                    logger.warn("Could not reach {}, generating locally: {}", owner, error.toString());
+                    return generateLocally(key, request);
+                })
+                .onErrorResume(error -> Mono.just(GenerationResult.upstream(handleForwardError(owner, error))));
+    }
+
+    /**
+     * Serves a request this replica owns, without forwarding. Called for requests forwarded by peers.
+     */
+    public Mono<GenerationResult> generateLocally(ImageGenerationRequest request) {
+        String key = request.cacheKey(falConfig.getModelId());
+        if (key == null) {
+            return falImageGenerationService.generateImage(request).map(GenerationResult::upstream);
+        }
+        return generateLocally(key, request);
+    }
+
+    /**
+     * Returns the cached successful response for the request on this replica, or {@code null}.
+     */
+    public ImageGenerationResponse getCached(ImageGenerationRequest request) {
+        String key = request.cacheKey(falConfig.getModelId());
+        return key != null ? cached(key) : null;
+    }
+
+    private Mono<GenerationResult> generateLocally(String key, ImageGenerationRequest request) {
+        ImageGenerationResponse cachedResponse = cached(key);
+        if (cachedResponse != null) {
+            logger.debug("Serving seeded request from cache");
+            return Mono.just(new GenerationResult(cachedResponse, GenerationResult.Source.CACHE));
+        }
+        // Identical requests arriving while one is in flight share its upstream call
+        boolean[] started = new boolean[1];
+        Mono<ImageGenerationResponse> shared = inFlight.computeIfAbsent(key, k -> {
+            started[0] = true;
+            return falImageGenerationService.generateImage(request)
+                    .doOnNext(response -> {
+                        if (!"error".equals(response.getStatus())) {
+                            cache.put(k, new CachedResponse(response, System.nanoTime() + cacheTtlNanos));
+                        }
+                    })
+                    .doFinally(signal -> inFlight.remove(k))
+                    .cache();
+        });
+        GenerationResult.Source source = started[0] ? GenerationResult.Source.UPSTREAM : GenerationResult.Source.COALESCED;
+        return shared.map(response -> new GenerationResult(response, source));
+    }
+
+    private ImageGenerationResponse cached(String key) {
+        CachedResponse cachedResponse = cache.get(key);
+        if (cachedResponse == null) {
+            return null;
+        }
+        if (System.nanoTime() - cachedResponse.expiresAtNanos() > 0) {
+            cache.remove(key, cachedResponse);
+            return null;
+        }
+        return cachedResponse.response();
+    }
+
+    private Mono<GenerationResult> forward(String owner, ImageGenerationRequest request, String requestId) {
+        return webClient.post()
+                .uri(owner + FORWARD_PATH)
+                .headers(headers -> {
+                    headers.set(SECRET_HEADER, clusterConfig.getSecret());
+                    // The owner logs under the same correlation id
+                    if (requestId != null) {
+                        headers.set(RequestCorrelationFilter.HEADER, requestId);
+                    }
+                })
+                .bodyValue(request)
+                .retrieve()
+                .toEntity(ImageGenerationResponse.class)
+                .timeout(clusterConfig.getForwardTimeout())
+                .flatMap(entity -> entity.hasBody()
+                        ? Mono.just(new GenerationResult(entity.getBody(), source(entity.getHeaders().getFirst(SOURCE_HEADER))))
+                        : Mono.error(new MalformedResponseException("empty body")));
+    }
+
+    // The owner may already be calling FAL.ai for the request, so these fail instead of falling back
+    private ImageGenerationResponse handleForwardError(String owner, Throwable error) {
+        String errorMessage;
+        if (error instanceof WebClientResponseException wcre) {
+            errorMessage = String.format("Forwarded generation failed (HTTP %d)", wcre.getStatusCode().value());
+        } else if (error instanceof TimeoutException) {
+            errorMessage = String.format("Forwarded generation did not complete within %ds",
+                    clusterConfig.getForwardTimeout().toSeconds());
+        } else if (error instanceof MalformedResponseException || error instanceof DecodingException) {
+            errorMessage = "Malformed response to forwarded generation: " + error.getMessage();
+        } else {
+            errorMessage = "Forwarded generation failed: " + error.getMessage();
+        }
+        logger.warn("Forwarding to {} failed: {}", owner, error.toString());
+        return new ImageGenerationResponse(errorMessage);
+    }
+
+    // Charged unless the owner says otherwise, so usage is never under-reported
+    private static GenerationResult.Source source(String header) {
+        if (header != null) {
+            for (GenerationResult.Source source : GenerationResult.Source.values()) {
+                if (source.name().equals(header)) {
+                    return source;
+                }
+            }
+        }
+        return GenerationResult.Source.UPSTREAM;
+    }
+
+    private record CachedResponse(ImageGenerationResponse response, long expiresAtNanos) {}
+}
@@ -1,51 +1,72 @@
 package com.playground.backend.service;
 
+import com.playground.backend.chaos.FaultInjectionFilter;
 import com.playground.backend.config.FalConfig;
 import com.playground.backend.dto.ImageGenerationRequest;
 import com.playground.backend.dto.ImageGenerationResponse;
+import com.playground.backend.exception.MalformedResponseException;
+import com.playground.backend.logging.PromptLog;
+import com.playground.backend.logging.RateLimitedLogger;
+import com.playground.backend.logging.RequestCorrelationFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.codec.DecodingException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @Service
 public class FalImageGenerationService {
 
     private static final Logger logger = LoggerFactory.getLogger(FalImageGenerationService.class);
+    private static final RateLimitedLogger errorLogger = new RateLimitedLogger(logger, 5, 1, TimeUnit.MINUTES);
 
     private final WebClient webClient;
     private final FalConfig falConfig;
 
     @Autowired
-    public FalImageGenerationService(FalConfig falConfig) {
+    public FalImageGenerationService(FalConfig falConfig, WebClient.Builder webClientBuilder,
+                                     ObjectProvider<FaultInjectionFilter> faultInjectionFilter) {
         this.falConfig = falConfig;
         
-        // Debug logging
-        logger.info("FAL Config - API URL: {}", falConfig.getApiUrl());
-        logger.info("FAL Config - Model ID: {}", falConfig.getModelId());
-        logger.info("FAL Config - API Key: {}", falConfig.getApiKey() != null ? "***" + falConfig.getApiKey().substring(falConfig.getApiKey().length() - 4) : "NULL");
-        
+        logger.debug("FAL config: api_url={} model_id={} api_key={}",
+                falConfig.getApiUrl(), falConfig.getModelId(), maskApiKey(falConfig.getApiKey()));
+
         if (falConfig.getApiUrl() == null || falConfig.getApiUrl().isEmpty()) {
             throw new IllegalStateException("FAL API URL is not configured");
         }
         
-        this.webClient = WebClient.builder()
+        webClientBuilder
                 .baseUrl(falConfig.getApiUrl())
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .defaultHeader(HttpHeaders.AUTHORIZATION, "Key " + falConfig.getApiKey())
-                .build();
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Key " + falConfig.getApiKey());
+        faultInjectionFilter.ifAvailable(filter -> {
+            logger.warn("Fault injection is enabled for FAL.ai calls; do not run this configuration in production");
+            webClientBuilder.filter(filter);
+        });
+        this.webClient = webClientBuilder.build();
     }
 
     public Mono<ImageGenerationResponse> generateImage(ImageGenerationRequest request) {
-        logger.info("Generating image with prompt: {}", request.getPrompt());
+        logger.debug("Generating image: prompt[{}] model_id={}", PromptLog.describe(request.getPrompt()), falConfig.getModelId());
+        logger.trace("Generating image with prompt: {}", PromptLog.truncate(request.getPrompt()));
+        // Responses complete on a WebClient thread, which does not carry the caller's MDC
+        String requestId = MDC.get(RequestCorrelationFilter.MDC_KEY);
 
         // Prepare the request payload for FAL.ai
         Map<String, Object> falRequest = new HashMap<>();
@@ -55,61 +76,120 @@ public class FalImageGenerationService {
         falRequest.put("output_format", request.getOutputFormat());
         falRequest.put("safety_tolerance", request.getSafetyTolerance());
         falRequest.put("aspect_ratio", request.getAspectRatio());
+        if (request.getSeed() != null) {
+            falRequest.put("seed", request.getSeed());
+        }
 
         return webClient.post()
                 .uri("/" + falConfig.getModelId())
                 .bodyValue(falRequest)
                 .retrieve()
                 .bodyToMono(Map.class)
-                .map(this::mapFalResponseToImageGenerationResponse)
-                .onErrorResume(this::handleError);
+                .timeout(falConfig.getTimeout())
+                .map(falResponse -> withRequestId(requestId, () -> mapFalResponseToImageGenerationResponse(falResponse)))
+                .onErrorResume(error -> withRequestId(requestId, () -> handleError(error)));
     }
 
     private ImageGenerationResponse mapFalResponseToImageGenerationResponse(Map<String, Object> falResponse) {
-        try {
-            // FAL.ai response has data at root level, not nested under "output"
-            // Extract images from the response
-            @SuppressWarnings("unchecked")
-            java.util.List<Map<String, Object>> imagesData = (java.util.List<Map<String, Object>>) falResponse.get("images");
-            java.util.List<ImageGenerationResponse.GeneratedImage> images = new java.util.ArrayList<>();
-
-            if (imagesData != null) {
-                for (Map<String, Object> imageData : imagesData) {
-                    ImageGenerationResponse.GeneratedImage image = new ImageGenerationResponse.GeneratedImage(
-                            (String) imageData.get("url"),
-                            (Integer) imageData.get("width"),
-                            (Integer) imageData.get("height"),
-                            (String) imageData.get("content_type")
-                    );
-                    images.add(image);
-                }
+        // FAL.ai response has data at root level, not nested under "output".
+        // Every field is checked rather than cast, so a body of the wrong shape becomes an error response
+        if (!(falResponse.get("images") instanceof List<?> imagesData)) {
+            throw new MalformedResponseException("'images' is missing or not a list");
+        }
+        List<ImageGenerationResponse.GeneratedImage> images = new ArrayList<>(imagesData.size());
+        for (Object item : imagesData) {
+            if (!(item instanceof Map<?, ?> imageData) || !(imageData.get("url") instanceof String url)) {
+                throw new MalformedResponseException("image without a string 'url'");
             }
+            images.add(new ImageGenerationResponse.GeneratedImage(
+                    url,
+                    toInteger(imageData.get("width"), "width"),
+                    toInteger(imageData.get("height"), "height"),
+                    imageData.get("content_type") instanceof String contentType ? contentType : null
+            ));
+        }
 
-            // Extract other fields from root level
-            Object timings = falResponse.get("timings");
-            Long seed = falResponse.get("seed") != null ? Long.valueOf(falResponse.get("seed").toString()) : null;
-            @SuppressWarnings("unchecked")
-            java.util.List<Boolean> hasNsfwConcepts = (java.util.List<Boolean>) falResponse.get("has_nsfw_concepts");
-            String prompt = (String) falResponse.get("prompt");
+        // Extract other fields from root level
+        Object timings = falResponse.get("timings");
+        Long seed = toLong(falResponse.get("seed"), "seed");
+        List<Boolean> hasNsfwConcepts = null;
+        if (falResponse.get("has_nsfw_concepts") instanceof List<?> flags) {
+            hasNsfwConcepts = new ArrayList<>(flags.size());
+            for (Object flag : flags) {
+                hasNsfwConcepts.add(Boolean.TRUE.equals(flag));
+            }
+        }
+        String prompt = falResponse.get("prompt") instanceof String text ? text : null;
 
-            return new ImageGenerationResponse(images, timings, seed, hasNsfwConcepts, prompt);
+        return new ImageGenerationResponse(images, timings, seed, hasNsfwConcepts, prompt);
+    }
 
-        } catch (Exception e) {
-            logger.error("Error mapping FAL response: {}", e.getMessage(), e);
-            return new ImageGenerationResponse("Error processing FAL.ai response: " + e.getMessage());
+    private static Integer toInteger(Object value, String field) {
+        if (value == null) {
+            return null;
         }
+        if (!(value instanceof Number number)) {
+            throw new MalformedResponseException("'" + field + "' is not a number");
+        }
+        return number.intValue();
     }
 
-    private Mono<ImageGenerationResponse> handleError(Throwable error) {
-        logger.error("Error calling FAL.ai API: {}", error.getMessage(), error);
+    private static Long toLong(Object value, String field) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        try {
+            return Long.valueOf(value.toString());
+        } catch (NumberFormatException e) {
+            throw new MalformedResponseException("'" + field + "' is not a number");
+        }
+    }
 
+    private Mono<ImageGenerationResponse> handleError(Throwable error) {
         if (error instanceof WebClientResponseException) {
             WebClientResponseException wcre = (WebClientResponseException) error;
+            // Upstream rejections are routine (rate limits, content policy): one line, no stack trace
+            logger.warn("FAL.ai API returned HTTP {}", wcre.getStatusCode().value());
             String errorMessage = String.format("FAL.ai API error (HTTP %d): %s", 
                     wcre.getStatusCode().value(), wcre.getResponseBodyAsString());
             return Mono.just(new ImageGenerationResponse(errorMessage));
         }
 
+        // Faults of the upstream rather than of this service: one line each, like HTTP errors
+        if (error instanceof MalformedResponseException || error instanceof DecodingException) {
+            logger.warn("FAL.ai API returned a malformed response: {}", error.getMessage());
+            return Mono.just(new ImageGenerationResponse("Malformed response from FAL.ai: " + error.getMessage()));
+        }
+        if (error instanceof TimeoutException) {
+            logger.warn("FAL.ai API did not respond within {}", falConfig.getTimeout());
+            return Mono.just(new ImageGenerationResponse("FAL.ai API did not respond within "
+                    + falConfig.getTimeout().toSeconds() + "s"));
+        }
+        if (error instanceof WebClientRequestException) {
+            logger.warn("Could not reach FAL.ai API: {}", error.getMessage());
+            return Mono.just(new ImageGenerationResponse("Could not reach FAL.ai API: " + error.getMessage()));
+        }
+
+        errorLogger.error("Error calling FAL.ai API", error);
         return Mono.just(new ImageGenerationResponse("Error calling FAL.ai API: " + error.getMessage()));
     }
+
+    private static <T> T withRequestId(String requestId, Supplier<T> action) {
+        if (requestId == null) {
+            return action.get();
+        }
+        try (MDC.MDCCloseable ignored = MDC.putCloseable(RequestCorrelationFilter.MDC_KEY, requestId)) {
+            return action.get();
+        }
+    }
+
+    private static String maskApiKey(String apiKey) {
+        if (apiKey == null) {
+            return "NULL";
+        }
+        return apiKey.length() > 4 ? "***" + apiKey.substring(apiKey.length() - 4) : "***";
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.playground.backend.service;
+
+import com.playground.backend.dto.ImageGenerationResponse;
+
+/**
+ * A response of {@link CoordinatedImageGenerationService} together with how it was obtained. Only
+ * responses that took an upstream call cost anything.
+ */
+public record GenerationResult(ImageGenerationResponse response, Source source) {
+
+    public enum Source {
+        // Generated by a call to FAL.ai on behalf of this request
+        UPSTREAM,
+        // Served from the response cache
+        CACHE,
+        // Shared the upstream call of an identical request already in flight
+        COALESCED
+    }
+
+    public static GenerationResult upstream(ImageGenerationResponse response) {
+        return new GenerationResult(response, Source.UPSTREAM);
+    }
+
+    public boolean isCharged() {
+        return source == Source.UPSTREAM;
+    }
+}
@@ -0,0 +1,223 @@
+package com.playground.backend.service;
+
+import com.playground.backend.config.FalConfig;
+import com.playground.backend.config.GridConfig;
+import com.playground.backend.dto.AspectRatio;
+import com.playground.backend.dto.GridCell;
+import com.playground.backend.dto.GridGenerationRequest;
+import com.playground.backend.dto.ImageGenerationRequest;
+import com.playground.backend.dto.ImageGenerationResponse;
+import com.playground.backend.exception.BudgetExceededException;
+import com.playground.backend.exception.InvalidGridException;
+import com.playground.backend.logging.PromptLog;
+import com.playground.backend.logging.RateLimitedLogger;
+import com.playground.backend.logging.RequestCorrelationFilter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates a grid of images from one base request swept across prompt suffixes, aspect ratios and
+ * seeds.
+ *
+ * The grid is expanded and validated up front. Identical seeded cells are generated once, and
+ * cells whose result is already cached on this replica are streamed first without an upstream call;
+ * they are recorded in the tenant's usage but not charged. The remaining cells go through {@link CoordinatedImageGenerationService} with at
+ * most {@code playground.grid.concurrency} in flight; each is admitted against the tenant's budget
+ * only when it is scheduled, so a grid that runs out of budget still returns the cells it could
+ * afford.
+ */
+@Service
+public class GridGenerationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GridGenerationService.class);
+    private static final RateLimitedLogger errorLogger = new RateLimitedLogger(logger, 5, 1, TimeUnit.MINUTES);
+
+    private final CoordinatedImageGenerationService imageGenerationService;
+    private final UsageAccountingService usageAccountingService;
+    private final Validator validator;
+    private final GridConfig gridConfig;
+    private final FalConfig falConfig;
+
+    @Autowired
+    public GridGenerationService(CoordinatedImageGenerationService imageGenerationService,
+                                 UsageAccountingService usageAccountingService, Validator validator,
+                                 GridConfig gridConfig, FalConfig falConfig) {
+        this.imageGenerationService = imageGenerationService;
+        this.usageAccountingService = usageAccountingService;
+        this.validator = validator;
+        this.gridConfig = gridConfig;
+        this.falConfig = falConfig;
+    }
+
+    /**
+     * Streams the cells of the grid in completion order.
+     *
+     * @throws InvalidGridException if the grid has too many cells or a cell is not a valid request
+     */
+    public Flux<GridCell> generate(String tenant, GridGenerationRequest grid, boolean compact) {
+        List<Cell> cells = expand(grid);
+
+        // Cells with the same cache key produce the same images; unseeded cells are all distinct
+        Map<Object, List<Cell>> groups = new LinkedHashMap<>();
+        for (Cell cell : cells) {
+            String key = cell.request().cacheKey(falConfig.getModelId());
+            groups.computeIfAbsent(key != null ? key : cell, k -> new ArrayList<>()).add(cell);
+        }
+
+        List<GridCell> fromCache = new ArrayList<>();
+        List<List<Cell>> toGenerate = new ArrayList<>();
+        for (List<Cell> group : groups.values()) {
+            ImageGenerationResponse cached = imageGenerationService.getCached(group.get(0).request());
+            if (cached != null) {
+                fromCache.addAll(toGridCells(group, true, serveCached(tenant, group.get(0).request(), cached), compact));
+            } else {
+                toGenerate.add(group);
+            }
+        }
+
+        logger.info("Received grid generation request: prompt[{}] cells={} unique={} cached={}",
+                PromptLog.describe(grid.getBase().getPrompt()), cells.size(), groups.size(),
+                groups.size() - toGenerate.size());
+
+        String requestId = MDC.get(RequestCorrelationFilter.MDC_KEY);
+        Flux<GridCell> generated = Flux.fromIterable(toGenerate)
+                .flatMap(group -> generateCell(tenant, group.get(0).request(), requestId)
+                                .flatMapIterable(response -> toGridCells(group, false, response, compact)),
+                        gridConfig.getConcurrency());
+        return Flux.fromIterable(fromCache).concatWith(generated);
+    }
+
+    List<Cell> expand(GridGenerationRequest grid) {
+        ImageGenerationRequest base = grid.getBase();
+        List<String> suffixes = grid.getPromptSuffixes() == null || grid.getPromptSuffixes().isEmpty()
+                ? Collections.singletonList(null) : grid.getPromptSuffixes();
+        List<AspectRatio> aspectRatios = grid.getAspectRatios() == null || grid.getAspectRatios().isEmpty()
+                ? Collections.singletonList(base.getAspectRatio()) : grid.getAspectRatios();
+        List<Long> seeds = seeds(grid, base);
+
+        long size = (long) suffixes.size() * aspectRatios.size() * seeds.size();
+        if (size > gridConfig.getMaxCells()) {
+            throw new InvalidGridException(String.format("Grid expands to %d cells, at most %d are allowed",
+                    size, gridConfig.getMaxCells()));
+        }
+
+        List<Cell> cells = new ArrayList<>((int) size);
+        for (String suffix : suffixes) {
+            String prompt = suffix == null ? base.getPrompt() : base.getPrompt() + suffix;
+            validatePrompt(prompt, suffix);
+            for (AspectRatio aspectRatio : aspectRatios) {
+                for (Long seed : seeds) {
+                    ImageGenerationRequest request = base.copy();
+                    request.setPrompt(prompt);
+                    request.setAspectRatio(aspectRatio);
+                    request.setSeed(seed);
+                    cells.add(new Cell(cells.size(), suffix, aspectRatio, seed, request));
+                }
+            }
+        }
+        return cells;
+    }
+
+    private List<Long> seeds(GridGenerationRequest grid, ImageGenerationRequest base) {
+        if (grid.getSeedRanges() == null || grid.getSeedRanges().isEmpty()) {
+            return Collections.singletonList(base.getSeed());
+        }
+        long total = 0;
+        for (GridGenerationRequest.SeedRange range : grid.getSeedRanges()) {
+            if (range.getStart() > Long.MAX_VALUE - range.getCount()) {
+                throw new InvalidGridException("Seed range starting at " + range.getStart() + " overflows");
+            }
+            total += range.getCount();
+        }
+        if (total > gridConfig.getMaxCells()) {
+            throw new InvalidGridException(String.format("Grid sweeps %d seeds, at most %d cells are allowed",
+                    total, gridConfig.getMaxCells()));
+        }
+        List<Long> seeds = new ArrayList<>((int) total);
+        for (GridGenerationRequest.SeedRange range : grid.getSeedRanges()) {
+            for (int i = 0; i < range.getCount(); i++) {
+                seeds.add(range.getStart() + i);
+            }
+        }
+        return seeds;
+    }
+
+    private void validatePrompt(String prompt, String suffix) {
+        ImageGenerationRequest probe = new ImageGenerationRequest(prompt, 1);
+        Set<ConstraintViolation<ImageGenerationRequest>> violations = validator.validateProperty(probe, "prompt");
+        if (!violations.isEmpty()) {
+            throw new InvalidGridException(String.format("Prompt with suffix '%s' is invalid: %s",
+                    suffix, violations.iterator().next().getMessage()));
+        }
+    }
+
+    // Admitted and recorded like a cached single request: it counts, but costs nothing
+    private ImageGenerationResponse serveCached(String tenant, ImageGenerationRequest request,
+                                                ImageGenerationResponse cached) {
+        try {
+            UsageAccountingService.Reservation reservation = usageAccountingService.admit(tenant, request);
+            usageAccountingService.record(reservation, new GenerationResult(cached, GenerationResult.Source.CACHE), 0);
+            return cached;
+        } catch (BudgetExceededException e) {
+            return new ImageGenerationResponse(e.getMessage());
+        }
+    }
+
+    private Mono<ImageGenerationResponse> generateCell(String tenant, ImageGenerationRequest request, String requestId) {
+        return Mono.defer(() -> {
+            // Cells after the first few are scheduled from upstream threads, which carry no MDC
+            String previousRequestId = MDC.get(RequestCorrelationFilter.MDC_KEY);
+            if (requestId != null) {
+                MDC.put(RequestCorrelationFilter.MDC_KEY, requestId);
+            }
+            try {
+                UsageAccountingService.Reservation reservation = usageAccountingService.admit(tenant, request);
+                long start = System.nanoTime();
+                return imageGenerationService.generateImage(request)
+                        .doOnNext(result -> usageAccountingService.record(reservation, result, System.nanoTime() - start))
+                        .doOnError(error -> usageAccountingService.record(reservation, null, System.nanoTime() - start))
+                        .doOnCancel(() -> usageAccountingService.abandon(reservation, System.nanoTime() - start))
+                        .map(GenerationResult::response)
+                        .onErrorResume(error -> {
+                            errorLogger.error("Unexpected error in grid cell generation", error);
+                            return Mono.just(new ImageGenerationResponse("Unexpected error: " + error.getMessage()));
+                        });
+            } catch (BudgetExceededException e) {
+                return Mono.just(new ImageGenerationResponse(e.getMessage()));
+            } finally {
+                if (previousRequestId != null) {
+                    MDC.put(RequestCorrelationFilter.MDC_KEY, previousRequestId);
+                } else {
+                    MDC.remove(RequestCorrelationFilter.MDC_KEY);
+                }
+            }
+        });
+    }
+
+    private static List<GridCell> toGridCells(List<Cell> group, boolean cached, ImageGenerationResponse response,
+                                              boolean compact) {
+        ImageGenerationResponse body = compact ? response.withoutEcho() : response;
+        List<GridCell> gridCells = new ArrayList<>(group.size());
+        for (Cell cell : group) {
+            gridCells.add(new GridCell(cell.index(), cell.promptSuffix(), cell.aspectRatio(), cell.seed(), cached, body));
+        }
+        return gridCells;
+    }
+
+    record Cell(int index, String promptSuffix, AspectRatio aspectRatio, Long seed, ImageGenerationRequest request) {}
+}
@@ -0,0 +1,333 @@
+package com.playground.backend.service;
+
+import com.playground.backend.config.FalConfig;
+import com.playground.backend.config.UsageConfig;
+import com.playground.backend.dto.ImageGenerationRequest;
+import com.playground.backend.dto.ImageGenerationResponse;
+import com.playground.backend.dto.UsageReport;
+import com.playground.backend.entity.UsageRecord;
+import com.playground.backend.exception.BudgetExceededException;
+import com.playground.backend.repository.UsageRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-tenant accounting of upstream image generation: request and image counts, upstream latency
+ * and estimated cost, with monthly budgets.
+ *
+ * Recording only touches {@link LongAdder}s, which stripe contended updates across cells, so it
+ * never takes a lock; admission briefly locks the tenant's map entry to place its reservation. A
+ * request is settled against the month it was admitted in, even if it completes after the month
+ * ends. A scheduled flush writes the delta since the previous flush to {@code usage_record} when
+ * persistence is enabled, tagged with this replica's id; on startup the replica reloads its own
+ * totals of the current month from there. Budgets are enforced per replica against these totals
+ * and are soft: requests that are admitted concurrently can overshoot the budget by at most their
+ * own cost.
+ */
+@Service
+public class UsageAccountingService {
+
+    public static final String DEFAULT_TENANT = "anonymous";
+
+    private static final Logger logger = LoggerFactory.getLogger(UsageAccountingService.class);
+    private static final int MICROS_SCALE = 6;
+
+    private final UsageConfig usageConfig;
+    private final FalConfig falConfig;
+    private final ObjectProvider<UsageRecordRepository> repositoryProvider;
+    private final Clock clock;
+
+    private final Map<TenantPeriod, TenantUsage> usage = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UsageAccountingService(UsageConfig usageConfig, FalConfig falConfig,
+                                  ObjectProvider<UsageRecordRepository> repositoryProvider) {
+        this(usageConfig, falConfig, repositoryProvider, Clock.systemUTC());
+    }
+
+    UsageAccountingService(UsageConfig usageConfig, FalConfig falConfig,
+                           ObjectProvider<UsageRecordRepository> repositoryProvider, Clock clock) {
+        this.usageConfig = usageConfig;
+        this.falConfig = falConfig;
+        this.repositoryProvider = repositoryProvider;
+        this.clock = clock;
+    }
+
+    public static String resolveTenant(String tenant) {
+        return tenant == null || tenant.isEmpty() ? DEFAULT_TENANT : tenant;
+    }
+
+    /**
+     * Checks the request against the tenant's remaining budget and reserves its estimated cost.
+     * Depending on the configured action, a request that does not fit is rejected or has its
+     * {@code num_images} reduced. The returned reservation must be settled with {@link #record} or
+     * {@link #abandon}.
+     *
+     * @throws BudgetExceededException if the tenant cannot afford the request
+     */
+    public Reservation admit(String tenant, ImageGenerationRequest request) {
+        long costPerImage = costPerImageMicros();
+        TenantPeriod key = new TenantPeriod(tenant, YearMonth.now(clock).toString());
+        TenantUsage tenantUsage = usage.computeIfAbsent(key, k -> new TenantUsage());
+        BigDecimal budget = usageConfig.budget(tenant);
+
+        if (budget != null) {
+            long remaining = toMicros(budget) - tenantUsage.committedCostMicros();
+            long requested = costPerImage * request.getNumImages();
+            if (requested > remaining) {
+                long affordable = costPerImage > 0 ? remaining / costPerImage : 0;
+                if (usageConfig.getOverBudgetAction() == UsageConfig.OverBudgetAction.DOWNGRADE && affordable >= 1) {
+                    logger.info("Downgrading request of tenant {} from {} to {} images to stay within budget",
+                            tenant, request.getNumImages(), affordable);
+                    request.setNumImages((int) affordable);
+                } else {
+                    throw new BudgetExceededException(tenant,
+                            String.format("Monthly budget of %s USD exceeded for tenant '%s'", budget.toPlainString(), tenant));
+                }
+            }
+        }
+
+        long reservedMicros = costPerImage * request.getNumImages();
+        // Placed under the entry's lock, so flush cannot evict the entry between lookup and reservation
+        TenantUsage reserved = usage.compute(key, (k, existing) -> {
+            TenantUsage target = existing != null ? existing : tenantUsage;
+            target.reservedMicros.add(reservedMicros);
+            return target;
+        });
+        return new Reservation(reserved, costPerImage, request.getNumImages());
+    }
+
+    /**
+     * Records the outcome of an admitted request in the month it was admitted in and releases its
+     * reservation. A {@code null} result or an error response counts as a failed request without
+     * cost; results served from the cache or shared with an identical request count their images
+     * but cost nothing. Settling a reservation a second time has no effect.
+     */
+    public void record(Reservation reservation, GenerationResult result, long latencyNanos) {
+        if (reservation == null || !reservation.settled.compareAndSet(false, true)) {
+            return;
+        }
+        TenantUsage tenantUsage = reservation.tenantUsage;
+        tenantUsage.requests.increment();
+        tenantUsage.latencyMicros.add(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        ImageGenerationResponse response = result != null ? result.response() : null;
+        if (response == null || "error".equals(response.getStatus())) {
+            tenantUsage.errors.increment();
+        } else {
+            int images = response.getImages() != null ? response.getImages().size() : reservation.numImages;
+            tenantUsage.images.add(images);
+            if (result.isCharged()) {
+                tenantUsage.costMicros.add(reservation.costPerImageMicros * images);
+            }
+        }
+        // Last, so that an entry without reservations has all of its counts in place for flush
+        tenantUsage.reservedMicros.add(-reservation.reservedMicros());
+    }
+
+    /**
+     * Settles the reservation of an admitted request whose caller went away before it completed,
+     * e.g. by disconnecting. The upstream call has already been made and is billed either way, so
+     * the reserved cost is charged, without counting images. Settling a reservation a second time
+     * has no effect.
+     */
+    public void abandon(Reservation reservation, long latencyNanos) {
+        if (reservation == null || !reservation.settled.compareAndSet(false, true)) {
+            return;
+        }
+        TenantUsage tenantUsage = reservation.tenantUsage;
+        tenantUsage.requests.increment();
+        tenantUsage.latencyMicros.add(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        tenantUsage.costMicros.add(reservation.reservedMicros());
+        tenantUsage.reservedMicros.add(-reservation.reservedMicros());
+    }
+
+    public List<UsageReport> report() {
+        String period = YearMonth.now(clock).toString();
+        List<UsageReport> reports = new ArrayList<>();
+        usage.forEach((key, tenantUsage) -> {
+            if (key.period().equals(period)) {
+                reports.add(toReport(key, tenantUsage));
+            }
+        });
+        reports.sort(Comparator.comparing(UsageReport::getTenant));
+        return reports;
+    }
+
+    public UsageReport report(String tenant) {
+        TenantPeriod key = new TenantPeriod(tenant, YearMonth.now(clock).toString());
+        TenantUsage tenantUsage = usage.get(key);
+        return toReport(key, tenantUsage != null ? tenantUsage : new TenantUsage());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreCurrentPeriod() {
+        UsageRecordRepository repository = repositoryProvider.getIfAvailable();
+        if (repository == null) {
+            return;
+        }
+        String period = YearMonth.now(clock).toString();
+        try {
+            // Other replicas sharing the database restore and flush their own rows
+            List<UsageRecord> records = repository.findByPeriodAndReplica(period, usageConfig.getReplica());
+            for (UsageRecord record : records) {
+                TenantUsage tenantUsage = usage.computeIfAbsent(new TenantPeriod(record.getTenant(), period), k -> new TenantUsage());
+                tenantUsage.restored = tenantUsage.restored.plus(Totals.of(record));
+            }
+            logger.info("Restored {} usage records of replica {} for {}", records.size(), usageConfig.getReplica(), period);
+        } catch (RuntimeException e) {
+            logger.warn("Could not restore usage for {}: {}", period, e.toString());
+        }
+    }
+
+    /**
+     * Writes the usage accumulated since the previous flush and drops tenants of past months once
+     * their requests have all been settled and flushed. Without a database only the eviction happens.
+     */
+    @Scheduled(fixedDelayString = "${playground.usage.flush-interval:PT30S}")
+    public synchronized void flush() {
+        UsageRecordRepository repository = repositoryProvider.getIfAvailable();
+        String period = YearMonth.now(clock).toString();
+        Instant now = clock.instant();
+
+        List<UsageRecord> records = new ArrayList<>();
+        Map<TenantUsage, Totals> flushed = new IdentityHashMap<>();
+        usage.forEach((key, tenantUsage) -> {
+            Totals current = tenantUsage.snapshot();
+            Totals delta = current.minus(tenantUsage.flushed);
+            if (!delta.isZero()) {
+                records.add(new UsageRecord(usageConfig.getReplica(), key.tenant(), key.period(), now,
+                        delta.requests(), delta.images(), delta.errors(), delta.costMicros(), delta.latencyMicros()));
+                flushed.put(tenantUsage, current);
+            }
+        });
+
+        if (repository != null && !records.isEmpty()) {
+            try {
+                repository.saveAll(records);
+            } catch (RuntimeException e) {
+                // Deltas are kept and retried with the next flush
+                logger.warn("Could not flush usage of {} tenants: {}", records.size(), e.toString());
+                return;
+            }
+            logger.debug("Flushed usage of {} tenants", records.size());
+        }
+        flushed.forEach((tenantUsage, totals) -> tenantUsage.flushed = totals);
+        for (TenantPeriod key : usage.keySet()) {
+            if (!key.period().equals(period)) {
+                usage.computeIfPresent(key, (k, tenantUsage) -> tenantUsage.isSettled() ? null : tenantUsage);
+            }
+        }
+    }
+
+    private long costPerImageMicros() {
+        return toMicros(usageConfig.costPerImage(falConfig.getModelId()));
+    }
+
+    private UsageReport toReport(TenantPeriod key, TenantUsage tenantUsage) {
+        Totals totals = tenantUsage.snapshot().plus(tenantUsage.restored);
+        double averageLatencyMs = totals.requests() > 0 ? totals.latencyMicros() / 1000.0 / totals.requests() : 0;
+        return new UsageReport(key.tenant(), key.period(), totals.requests(), totals.images(), totals.errors(),
+                BigDecimal.valueOf(totals.costMicros(), MICROS_SCALE).stripTrailingZeros(),
+                averageLatencyMs, usageConfig.budget(key.tenant()));
+    }
+
+    private static long toMicros(BigDecimal usd) {
+        return usd.setScale(MICROS_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * The estimated cost an admitted request holds against its tenant's budget, tied to the month
+     * it was admitted in.
+     */
+    public static final class Reservation {
+
+        private final TenantUsage tenantUsage;
+        private final long costPerImageMicros;
+        private final int numImages;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        private Reservation(TenantUsage tenantUsage, long costPerImageMicros, int numImages) {
+            this.tenantUsage = tenantUsage;
+            this.costPerImageMicros = costPerImageMicros;
+            this.numImages = numImages;
+        }
+
+        private long reservedMicros() {
+            return costPerImageMicros * numImages;
+        }
+    }
+
+    private record TenantPeriod(String tenant, String period) {}
+
+    private static class TenantUsage {
+        final LongAdder requests = new LongAdder();
+        final LongAdder images = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder costMicros = new LongAdder();
+        final LongAdder latencyMicros = new LongAdder();
+        // Estimated cost of admitted requests that have not completed yet
+        final LongAdder reservedMicros = new LongAdder();
+
+        // Totals persisted by earlier runs, and the part of this run's totals already flushed
+        volatile Totals restored = Totals.ZERO;
+        Totals flushed = Totals.ZERO;
+
+        Totals snapshot() {
+            return new Totals(requests.sum(), images.sum(), errors.sum(), costMicros.sum(), latencyMicros.sum());
+        }
+
+        long committedCostMicros() {
+            return restored.costMicros() + costMicros.sum() + reservedMicros.sum();
+        }
+
+        // Reservations are released after their counts are added, so read them first
+        boolean isSettled() {
+            return reservedMicros.sum() == 0 && snapshot().equals(flushed);
+        }
+    }
+
+    private record Totals(long requests, long images, long errors, long costMicros, long latencyMicros) {
+
+        static final Totals ZERO = new Totals(0, 0, 0, 0, 0);
+
+        static Totals of(UsageRecord record) {
+            return new Totals(record.getRequests(), record.getImages(), record.getErrors(),
+                    record.getCostMicros(), record.getLatencyMicros());
+        }
+
+        Totals plus(Totals other) {
+            return new Totals(requests + other.requests, images + other.images, errors + other.errors,
+                    costMicros + other.costMicros, latencyMicros + other.latencyMicros);
+        }
+
+        Totals minus(Totals other) {
+            return new Totals(requests - other.requests, images - other.images, errors - other.errors,
+                    costMicros - other.costMicros, latencyMicros - other.latencyMicros);
+        }
+
+        boolean isZero() {
+            return requests == 0 && images == 0 && errors == 0 && costMicros == 0 && latencyMicros == 0;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.playground.backend.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The annotated string must not be longer than {@link #value()} bytes when encoded as UTF-8.
+ * {@code null} is considered valid.
+ */
+@Documented
+@Constraint(validatedBy = MaxUtf8BytesValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MaxUtf8Bytes {
+
+    int value();
+
+    String message() default "must not exceed {value} bytes";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
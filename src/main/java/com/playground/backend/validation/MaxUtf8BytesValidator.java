@@ -0,0 +1,49 @@
+package com.playground.backend.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class MaxUtf8BytesValidator implements ConstraintValidator<MaxUtf8Bytes, CharSequence> {
+
+    private int maxBytes;
+
+    @Override
+    public void initialize(MaxUtf8Bytes constraint) {
+        this.maxBytes = constraint.value();
+    }
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        if (value == null) {
+            return true;
+        }
+        // A UTF-16 char never takes more than 3 bytes in UTF-8, so short values need no scan
+        int length = value.length();
+        if ((long) length * 3 <= maxBytes) {
+            return true;
+        }
+        if (length > maxBytes) {
+            return false;
+        }
+        return utf8Length(value) <= maxBytes;
+    }
+
+    static int utf8Length(CharSequence value) {
+        int bytes = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
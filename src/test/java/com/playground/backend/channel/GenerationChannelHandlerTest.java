@@ -0,0 +1,174 @@
+package com.playground.backend.channel;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playground.backend.config.ChannelConfig;
+import com.playground.backend.dto.ImageGenerationRequest;
+import com.playground.backend.dto.ImageGenerationResponse;
+import com.playground.backend.exception.BudgetExceededException;
+import com.playground.backend.service.CoordinatedImageGenerationService;
+import com.playground.backend.service.GenerationResult;
+import com.playground.backend.service.UsageAccountingService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GenerationChannelHandlerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private CoordinatedImageGenerationService imageGenerationService;
+    private UsageAccountingService usageAccountingService;
+    private UsageAccountingService.Reservation reservation;
+    private WebSocketSession session;
+    private GenerationChannelHandler handler;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        imageGenerationService = mock(CoordinatedImageGenerationService.class);
+        usageAccountingService = mock(UsageAccountingService.class);
+        reservation = mock(UsageAccountingService.Reservation.class);
+        when(usageAccountingService.admit(eq("acme"), any(ImageGenerationRequest.class))).thenReturn(reservation);
+        ChannelConfig channelConfig = new ChannelConfig();
+        channelConfig.setMaxInFlight(2);
+        handler = new GenerationChannelHandler(imageGenerationService, usageAccountingService, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), channelConfig);
+
+        session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("1");
+        when(session.isOpen()).thenReturn(true);
+        when(session.getHandshakeHeaders()).thenReturn(new HttpHeaders());
+        when(session.getUri()).thenReturn(URI.create("ws://localhost/api/ws/generate?tenant=acme"));
+        handler.afterConnectionEstablished(session);
+    }
+
+    @Test
+    public void testGenerate_PushesResultsInCompletionOrder() throws Exception {
+        // Given
+        Sinks.One<ImageGenerationResponse> slow = Sinks.one();
+        when(imageGenerationService.generateImage(any(ImageGenerationRequest.class)))
+                .thenReturn(slow.asMono().map(GenerationResult::upstream))
+                .thenReturn(Mono.just(GenerationResult.upstream(success())));
+
+        // When
+        handler.handleTextMessage(session, generate("a", "A cat"));
+        handler.handleTextMessage(session, generate("b", "A dog"));
+        slow.tryEmitValue(success());
+
+        // Then
+        List<JsonNode> sent = sentMessages();
+        assertThat(sent).extracting(message -> message.get("id").asText()).containsExactly("b", "a");
+        assertThat(sent).extracting(message -> message.get("type").asText()).containsOnly("result");
+        assertThat(sent.get(0).get("response").get("status").asText()).isEqualTo("success");
+        verify(usageAccountingService, times(2)).record(same(reservation), any(), anyLong());
+    }
+
+    @Test
+    public void testCancel_ChargesReservation() throws Exception {
+        // Given
+        when(imageGenerationService.generateImage(any(ImageGenerationRequest.class))).thenReturn(Mono.never());
+
+        // When
+        handler.handleTextMessage(session, generate("a", "A cat"));
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"cancel\",\"id\":\"a\"}"));
+
+        // Then
+        assertThat(sentMessages()).extracting(message -> message.get("type").asText()).containsExactly("cancelled");
+        verify(usageAccountingService).abandon(same(reservation), anyLong());
+    }
+
+    @Test
+    public void testGenerate_RejectsBeyondMaxInFlight() throws Exception {
+        // Given
+        when(imageGenerationService.generateImage(any(ImageGenerationRequest.class))).thenReturn(Mono.never());
+
+        // When
+        handler.handleTextMessage(session, generate("a", "A cat"));
+        handler.handleTextMessage(session, generate("b", "A cat"));
+        handler.handleTextMessage(session, generate("c", "A cat"));
+
+        // Then
+        List<JsonNode> sent = sentMessages();
+        assertThat(sent).hasSize(1);
+        assertThat(sent.get(0).get("id").asText()).isEqualTo("c");
+        assertThat(sent.get(0).get("error").asText()).contains("Too many generations in flight");
+    }
+
+    @Test
+    public void testGenerate_ValidationAndBudgetErrors() throws Exception {
+        // Given
+        doThrow(new BudgetExceededException("acme", "Monthly budget of 50 USD exceeded for tenant 'acme'"))
+                .when(usageAccountingService).admit(eq("acme"), any(ImageGenerationRequest.class));
+
+        // When
+        handler.handleTextMessage(session, generate("a", ""));
+        handler.handleTextMessage(session, generate("b", "A cat"));
+        handler.handleTextMessage(session, new TextMessage("not json"));
+
+        // Then
+        List<JsonNode> sent = sentMessages();
+        assertThat(sent).extracting(message -> message.get("type").asText()).containsOnly("error");
+        assertThat(sent.get(0).get("error").asText()).isEqualTo("Validation failed: {prompt=Prompt is required}");
+        assertThat(sent.get(1).get("error").asText()).contains("Monthly budget");
+        assertThat(sent.get(2).get("error").asText()).isEqualTo("Malformed message");
+        verify(imageGenerationService, never()).generateImage(any(ImageGenerationRequest.class));
+    }
+
+    @Test
+    public void testConnectionClosed_DisposesInFlightGenerations() throws Exception {
+        // Given
+        when(imageGenerationService.generateImage(any(ImageGenerationRequest.class))).thenReturn(Mono.never());
+        handler.handleTextMessage(session, generate("a", "A cat"));
+
+        // When
+        handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+
+        // Then
+        verify(usageAccountingService).abandon(same(reservation), anyLong());
+    }
+
+    private TextMessage generate(String id, String prompt) {
+        return new TextMessage("{\"type\":\"generate\",\"id\":\"" + id + "\",\"request\":{\"prompt\":\""
+                + prompt + "\",\"num_images\":1}}");
+    }
+
+    private List<JsonNode> sentMessages() throws Exception {
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, atLeast(0)).sendMessage(captor.capture());
+        List<JsonNode> messages = new ArrayList<>();
+        for (TextMessage message : captor.getAllValues()) {
+            messages.add(objectMapper.readTree(message.getPayload()));
+        }
+        return messages;
+    }
+
+    private static ImageGenerationResponse success() {
+        ImageGenerationResponse.GeneratedImage image =
+                new ImageGenerationResponse.GeneratedImage("https://example.com/image.jpg", 1024, 1024, "image/jpeg");
+        return new ImageGenerationResponse(List.of(image), null, 42L, List.of(false), "A cat");
+    }
+}
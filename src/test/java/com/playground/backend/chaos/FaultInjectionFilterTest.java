@@ -0,0 +1,243 @@
+package com.playground.backend.chaos;
+
+import com.playground.backend.config.FalConfig;
+import com.playground.backend.dto.FaultInjectionSettings;
+import com.playground.backend.dto.ImageGenerationRequest;
+import com.playground.backend.dto.ImageGenerationResponse;
+import com.playground.backend.service.FalImageGenerationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs batches of concurrent generations through {@link FalImageGenerationService} against a
+ * healthy stub upstream with one kind of fault injected, and checks the service's SLOs under it:
+ * every call completes, every failure is an error response rather than an exception, exactly the
+ * calls the filter injected a failing fault into fail, and faults the service can absorb do not
+ * turn into errors. Outcomes are counted against the filter's seeded rolls rather than timed, so
+ * a slow machine cannot fail the test; latencies stay well clear of the FAL timeout.
+ */
+public class FaultInjectionFilterTest {
+
+    private static final int REQUESTS = 200;
+    private static final Duration TIMEOUT = Duration.ofSeconds(1);
+
+    private static final String FAL_RESPONSE = "{\"images\":[{\"url\":\"https://fal.media/files/cat.jpeg\","
+            + "\"width\":2048,\"height\":2048,\"content_type\":\"image/jpeg\"}],"
+            + "\"timings\":{\"inference\":1.5},\"seed\":42,\"has_nsfw_concepts\":[false],\"prompt\":\"A cat\"}";
+
+    private final List<Double> rolls = Collections.synchronizedList(new ArrayList<>());
+    private FaultInjectionFilter filter;
+    private FalImageGenerationService service;
+
+    @BeforeEach
+    public void setUp() {
+        FalConfig falConfig = new FalConfig();
+        falConfig.setApiKey("test-key");
+        falConfig.setApiUrl("http://fal.test");
+        falConfig.setModelId("fal-ai/flux-pro/v1.1-ultra");
+        falConfig.setTimeout(TIMEOUT);
+
+        // Seeded, so every run injects faults into the same requests; the rolls are kept to count them
+        Random random = new Random(42);
+        filter = new FaultInjectionFilter(() -> {
+            double roll = random.nextDouble();
+            rolls.add(roll);
+            return roll;
+        });
+
+        ExchangeFunction upstream = request -> Mono.delay(Duration.ofMillis(20))
+                .map(tick -> ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(FAL_RESPONSE)
+                        .build());
+        service = new FalImageGenerationService(falConfig, WebClient.builder().exchangeFunction(upstream),
+                new StaticListableBeanFactory(Map.of("faultInjectionFilter", filter))
+                        .getBeanProvider(FaultInjectionFilter.class));
+    }
+
+    @Test
+    public void testGenerateImage_NoFaults() {
+        // When
+        List<ImageGenerationResponse> responses = run(new FaultInjectionSettings());
+
+        // Then
+        assertSlo(responses, 0.0, null);
+    }
+
+    @Test
+    public void testGenerateImage_InjectedLatencyBelowTimeout() {
+        // Given
+        FaultInjectionSettings settings = new FaultInjectionSettings();
+        settings.setLatencyMs(200);
+        settings.setLatencyRate(1.0);
+
+        // When
+        List<ImageGenerationResponse> responses = run(settings);
+
+        // Then
+        assertSlo(responses, 0.0, null);
+    }
+
+    @Test
+    public void testGenerateImage_InjectedLatencyBeyondTimeout() {
+        // Given
+        FaultInjectionSettings settings = new FaultInjectionSettings();
+        settings.setLatencyMs(5000);
+        settings.setLatencyRate(0.2);
+
+        // When
+        List<ImageGenerationResponse> responses = run(settings);
+
+        // Then
+        assertSlo(responses, 0.2, "FAL.ai API did not respond within");
+    }
+
+    @Test
+    public void testGenerateImage_InjectedErrors() {
+        // Given
+        FaultInjectionSettings settings = new FaultInjectionSettings();
+        settings.setErrorRate(0.3);
+        settings.setErrorStatus(503);
+
+        // When
+        List<ImageGenerationResponse> responses = run(settings);
+
+        // Then
+        assertSlo(responses, 0.3, "FAL.ai API error (HTTP 503)");
+    }
+
+    @Test
+    public void testGenerateImage_InjectedResets() {
+        // Given
+        FaultInjectionSettings settings = new FaultInjectionSettings();
+        settings.setResetRate(0.3);
+
+        // When
+        List<ImageGenerationResponse> responses = run(settings);
+
+        // Then
+        assertSlo(responses, 0.3, "Could not reach FAL.ai API");
+    }
+
+    @Test
+    public void testGenerateImage_InjectedTruncatedBodies() {
+        // Given
+        FaultInjectionSettings settings = new FaultInjectionSettings();
+        settings.setTruncatedRate(0.3);
+
+        // When
+        List<ImageGenerationResponse> responses = run(settings);
+
+        // Then
+        assertSlo(responses, 0.3, "Malformed response from FAL.ai");
+    }
+
+    @Test
+    public void testGenerateImage_InjectedMalformedBodies() {
+        // Given
+        FaultInjectionSettings settings = new FaultInjectionSettings();
+        settings.setMalformedRate(0.3);
+
+        // When
+        List<ImageGenerationResponse> responses = run(settings);
+
+        // Then
+        assertSlo(responses, 0.3, "Malformed response from FAL.ai");
+    }
+
+    @Test
+    public void testGenerateImage_InjectedSlowDripWithinTimeout() {
+        // Given
+        FaultInjectionSettings settings = new FaultInjectionSettings();
+        settings.setSlowDripRate(1.0);
+        settings.setDripIntervalMs(20);
+        settings.setDripChunkBytes(32);
+
+        // When
+        List<ImageGenerationResponse> responses = run(settings);
+
+        // Then
+        assertSlo(responses, 0.0, null);
+    }
+
+    @Test
+    public void testGenerateImage_InjectedSlowDripBeyondTimeout() {
+        // Given
+        FaultInjectionSettings settings = new FaultInjectionSettings();
+        settings.setSlowDripRate(0.2);
+        settings.setDripIntervalMs(200);
+        settings.setDripChunkBytes(16);
+
+        // When
+        List<ImageGenerationResponse> responses = run(settings);
+
+        // Then
+        assertSlo(responses, 0.2, "FAL.ai API did not respond within");
+    }
+
+    private List<ImageGenerationResponse> run(FaultInjectionSettings settings) {
+        filter.setSettings(settings);
+        return Flux.range(0, REQUESTS)
+                .flatMap(i -> service.generateImage(new ImageGenerationRequest("A cat", 1)), REQUESTS)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+    }
+
+    /**
+     * Checks that exactly the calls whose roll fell below the fault's rate failed, with the expected
+     * error. The filter rolls once per call for the exclusive faults, and a second time for latency
+     * when it is configured; calls are made one after another, so a call's rolls are adjacent.
+     */
+    private void assertSlo(List<ImageGenerationResponse> responses, double injectedRate, String expectedError) {
+        assertThat(responses).hasSize(REQUESTS);
+
+        List<ImageGenerationResponse> errors = responses.stream()
+                .filter(response -> "error".equals(response.getStatus()))
+                .toList();
+        assertThat(errors).hasSize(injectedFaults(injectedRate));
+        if (injectedRate > 0) {
+            assertThat(errors).isNotEmpty();
+            assertThat(errors).allSatisfy(error -> assertThat(error.getError()).startsWith(expectedError));
+        }
+
+        responses.stream()
+                .filter(response -> !"error".equals(response.getStatus()))
+                .forEach(response -> {
+                    assertThat(response.getSeed()).isEqualTo(42L);
+                    assertThat(response.getImages()).hasSize(1);
+                    assertThat(response.getImages().get(0).getUrl()).isEqualTo("https://fal.media/files/cat.jpeg");
+                    assertThat(response.getImages().get(0).getWidth()).isEqualTo(2048);
+                });
+    }
+
+    private int injectedFaults(double rate) {
+        boolean latency = filter.getSettings().getLatencyMs() > 0;
+        List<Double> drawn = List.copyOf(rolls);
+        assertThat(drawn).hasSize(latency ? 2 * REQUESTS : REQUESTS);
+        int injected = 0;
+        for (int i = latency ? 1 : 0; i < drawn.size(); i += latency ? 2 : 1) {
+            if (drawn.get(i) < rate) {
+                injected++;
+            }
+        }
+        return injected;
+    }
+}
@@ -0,0 +1,37 @@
+package com.playground.backend.cluster;
+
+import com.playground.backend.config.ClusterConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ClusterMembershipTest {
+
+    @Test
+    public void testConstructor_RequiresSecretWhenEnabled() {
+        // Given
+        ClusterConfig clusterConfig = new ClusterConfig();
+        clusterConfig.setEnabled(true);
+        clusterConfig.setSelf("http://127.0.0.1:8081");
+        clusterConfig.setPeers(List.of("http://127.0.0.1:8081", "http://127.0.0.1:8082"));
+        clusterConfig.setSecret(" ");
+
+        // When & Then
+        assertThatThrownBy(() -> new ClusterMembership(clusterConfig, WebClient.builder()))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("playground.cluster.secret");
+    }
+
+    @Test
+    public void testConstructor_DisabledClusterNeedsNoSecret() {
+        // When
+        ClusterMembership membership = new ClusterMembership(new ClusterConfig(), WebClient.builder());
+
+        // Then
+        assertThat(membership.getRing().getNodes()).containsExactly("local");
+    }
+}
@@ -0,0 +1,68 @@
+package com.playground.backend.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConsistentHashRingTest {
+
+    private static final List<String> NODES = List.of("http://a:8080", "http://b:8080", "http://c:8080");
+    private static final int KEYS = 30_000;
+
+    @Test
+    public void testNodeFor_SpreadsKeysEvenly() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+
+        // When
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.nodeFor("key-" + i), 1, Integer::sum);
+        }
+
+        // Then: every node owns its third of the keys within 20%
+        assertThat(counts).containsOnlyKeys(NODES);
+        counts.values().forEach(count -> assertThat(count).isBetween(KEYS / 3 * 8 / 10, KEYS / 3 * 12 / 10));
+    }
+
+    @Test
+    public void testNodeFor_RemovingNodeOnlyMovesItsKeys() {
+        // Given
+        ConsistentHashRing before = new ConsistentHashRing(NODES, 128);
+        ConsistentHashRing after = new ConsistentHashRing(NODES.subList(0, 2), 128);
+
+        // When / Then
+        for (int i = 0; i < KEYS; i++) {
+            String key = "key-" + i;
+            String owner = before.nodeFor(key);
+            if (!owner.equals("http://c:8080")) {
+                assertThat(after.nodeFor(key)).isEqualTo(owner);
+            }
+        }
+    }
+
+    @Test
+    public void testNodeFor_IndependentOfMembershipOrder() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 16);
+        ConsistentHashRing reversed = new ConsistentHashRing(List.of(NODES.get(2), NODES.get(1), NODES.get(0)), 16);
+
+        // When / Then
+        for (int i = 0; i < 1000; i++) {
+            assertThat(reversed.nodeFor("key-" + i)).isEqualTo(ring.nodeFor("key-" + i));
+        }
+    }
+
+    @Test
+    public void testNodeFor_EmptyRing() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(List.of(), 128);
+
+        // When / Then
+        assertThat(ring.nodeFor("key")).isNull();
+    }
+}
@@ -0,0 +1,39 @@
+package com.playground.backend.config;
+
+import com.playground.backend.dto.ChannelMessage;
+import com.playground.backend.dto.ImageGenerationRequest;
+import com.playground.backend.dto.ImageGenerationResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PlaygroundRuntimeHintsTest {
+
+    @Test
+    public void testRegisterHints_DtosAndConfig() throws Exception {
+        // Given
+        RuntimeHints hints = new RuntimeHints();
+
+        // When
+        new PlaygroundRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        // Then
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onMethod(ImageGenerationRequest.class.getMethod("setPrompt", String.class)))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onMethod(ImageGenerationResponse.class.getMethod("getImages")))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onMethod(ImageGenerationResponse.GeneratedImage.class.getMethod("getUrl")))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onMethod(ChannelMessage.class.getMethod("getRequest")))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onMethod(FalConfig.class.getMethod("setApiUrl", String.class)))
+                .accepts(hints);
+    }
+}
@@ -0,0 +1,66 @@
+package com.playground.backend.controller;
+
+import com.playground.backend.chaos.FaultInjectionFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ChaosController.class)
+@Import(FaultInjectionFilter.class)
+@TestPropertySource(properties = {"playground.chaos.enabled=true", "playground.cluster.secret=test-secret"})
+public class ChaosControllerTest {
+
+    private static final String SETTINGS = "{\"error_rate\": 0.5, \"error_status\": 503}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FaultInjectionFilter faultInjectionFilter;
+
+    @Test
+    public void testUpdateSettings_WithSecret() throws Exception {
+        // When & Then
+        mockMvc.perform(put("/internal/chaos")
+                .header("X-Cluster-Secret", "test-secret")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(SETTINGS))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.error_rate").value(0.5));
+        assertThat(faultInjectionFilter.getSettings().getErrorRate()).isEqualTo(0.5);
+
+        mockMvc.perform(delete("/internal/chaos").header("X-Cluster-Secret", "test-secret"))
+                .andExpect(status().isOk());
+        assertThat(faultInjectionFilter.getSettings().getErrorRate()).isZero();
+    }
+
+    @Test
+    public void testUpdateSettings_WithoutSecret() throws Exception {
+        // When & Then
+        mockMvc.perform(put("/internal/chaos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(SETTINGS))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.error").value("Fault injection can only be controlled by internal callers"));
+        mockMvc.perform(put("/internal/chaos")
+                .header("X-Cluster-Secret", "wrong-secret")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(SETTINGS))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/internal/chaos"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/internal/chaos"))
+                .andExpect(status().isForbidden());
+        assertThat(faultInjectionFilter.getSettings().getErrorRate()).isZero();
+    }
+}
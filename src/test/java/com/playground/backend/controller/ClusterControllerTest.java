@@ -0,0 +1,93 @@
+package com.playground.backend.controller;
+
+import com.playground.backend.dto.ImageGenerationRequest;
+import com.playground.backend.dto.ImageGenerationResponse;
+import com.playground.backend.service.CoordinatedImageGenerationService;
+import com.playground.backend.service.GenerationResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ClusterController.class)
+@TestPropertySource(properties = {"playground.cluster.enabled=true", "playground.cluster.secret=test-secret"})
+public class ClusterControllerTest {
+
+    private static final String REQUEST = "{\"prompt\": \"A cat\", \"num_images\": 1, \"seed\": 42}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CoordinatedImageGenerationService coordinatedImageGenerationService;
+
+    @Test
+    public void testGenerateImage_ServesForwardedRequest() throws Exception {
+        // Given
+        ImageGenerationResponse.GeneratedImage image =
+                new ImageGenerationResponse.GeneratedImage("https://example.com/image.jpg", 1024, 1024, "image/jpeg");
+        ImageGenerationResponse response = new ImageGenerationResponse(List.of(image), null, 42L, List.of(false), "A cat");
+        when(coordinatedImageGenerationService.generateLocally(any(ImageGenerationRequest.class)))
+                .thenReturn(Mono.just(new GenerationResult(response, GenerationResult.Source.CACHE)));
+
+        // When
+        MvcResult result = mockMvc.perform(post(CoordinatedImageGenerationService.FORWARD_PATH)
+                .header(CoordinatedImageGenerationService.SECRET_HEADER, "test-secret")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(REQUEST))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CoordinatedImageGenerationService.SOURCE_HEADER, "CACHE"))
+                .andExpect(jsonPath("$.seed").value(42));
+    }
+
+    @Test
+    public void testGenerateImage_MissingSecret() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(post(CoordinatedImageGenerationService.FORWARD_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(REQUEST))
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.error").value("Forwarding is not allowed"));
+        verify(coordinatedImageGenerationService, never()).generateLocally(any(ImageGenerationRequest.class));
+    }
+
+    @Test
+    public void testGenerateImage_WrongSecret() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(post(CoordinatedImageGenerationService.FORWARD_PATH)
+                .header(CoordinatedImageGenerationService.SECRET_HEADER, "wrong-secret")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(REQUEST))
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.error").value("Forwarding is not allowed"));
+        verify(coordinatedImageGenerationService, never()).generateLocally(any(ImageGenerationRequest.class));
+    }
+}
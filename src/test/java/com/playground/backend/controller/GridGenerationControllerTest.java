@@ -0,0 +1,95 @@
+package com.playground.backend.controller;
+
+import com.playground.backend.dto.GridCell;
+import com.playground.backend.dto.GridGenerationRequest;
+import com.playground.backend.dto.ImageGenerationResponse;
+import com.playground.backend.exception.InvalidGridException;
+import com.playground.backend.service.GridGenerationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(GridGenerationController.class)
+public class GridGenerationControllerTest {
+
+    private static final String GRID = """
+            {"base": {"prompt": "A lighthouse", "num_images": 1}, "seed_ranges": [{"start": 1, "count": 2}]}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private GridGenerationService gridGenerationService;
+
+    @Test
+    public void testGenerateGrid_StreamsNdjson() throws Exception {
+        // Given
+        when(gridGenerationService.generate(eq("anonymous"), any(GridGenerationRequest.class), anyBoolean()))
+                .thenReturn(Flux.just(cell(1), cell(0)));
+
+        // When
+        MvcResult result = mockMvc.perform(post("/api/generate-image/grid")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .content(GRID))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("{\"index\":1,\"seed\":2,\"cached\":false,")))
+                .andExpect(content().string(containsString("}\n{\"index\":0,\"seed\":1,")));
+    }
+
+    @Test
+    public void testGenerateGrid_InvalidGrid() throws Exception {
+        // Given
+        when(gridGenerationService.generate(eq("anonymous"), any(GridGenerationRequest.class), anyBoolean()))
+                .thenThrow(new InvalidGridException("Grid expands to 100 cells, at most 64 are allowed"));
+
+        // When & Then
+        mockMvc.perform(post("/api/generate-image/grid")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .content(GRID))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.error").value("Grid expands to 100 cells, at most 64 are allowed"));
+    }
+
+    @Test
+    public void testGenerateGrid_InvalidBaseRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/generate-image/grid")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .content("{\"base\": {\"prompt\": \"\", \"num_images\": 1}}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.error").value(containsString("Prompt is required")));
+    }
+
+    private static GridCell cell(int index) {
+        ImageGenerationResponse response = new ImageGenerationResponse(List.of(), null, index + 1L, List.of(), null);
+        return new GridCell(index, null, null, index + 1L, false, response);
+    }
+}
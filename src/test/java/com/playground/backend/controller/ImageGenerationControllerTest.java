@@ -1,33 +1,56 @@
 package com.playground.backend.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.playground.backend.config.ContentNegotiationConfig;
 import com.playground.backend.dto.ImageGenerationRequest;
 import com.playground.backend.dto.ImageGenerationResponse;
-import com.playground.backend.service.FalImageGenerationService;
+import com.playground.backend.exception.BudgetExceededException;
+import com.playground.backend.service.CoordinatedImageGenerationService;
+import com.playground.backend.service.GenerationResult;
+import com.playground.backend.service.UsageAccountingService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import reactor.core.publisher.Mono;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 
 @WebMvcTest(ImageGenerationController.class)
+@Import(ContentNegotiationConfig.class)
 public class ImageGenerationControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
     @MockBean
-    private FalImageGenerationService imageGenerationService;
+    private CoordinatedImageGenerationService imageGenerationService;
+
+    @MockBean
+    private UsageAccountingService usageAccountingService;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -49,19 +72,24 @@ public class ImageGenerationControllerTest {
 
         ImageGenerationResponse response = new ImageGenerationResponse(
             List.of(generatedImage), 
-            new Object(), 
+            Map.of(), 
             1234567890L, 
             List.of(false), 
             "A beautiful sunset"
         );
 
         when(imageGenerationService.generateImage(any(ImageGenerationRequest.class)))
-            .thenReturn(Mono.just(response));
+            .thenReturn(Mono.just(GenerationResult.upstream(response)));
 
-        // When & Then
-        mockMvc.perform(post("/api/generate-image")
+        // When
+        MvcResult result = mockMvc.perform(post("/api/generate-image")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value("success"))
@@ -70,6 +98,85 @@ public class ImageGenerationControllerTest {
                 .andExpect(jsonPath("$.images[0].height").value(1080));
     }
 
+    @Test
+    public void testGenerateImage_CompactOmitsEchoedFields() throws Exception {
+        // Given
+        ImageGenerationRequest request = new ImageGenerationRequest("A beautiful sunset", 1);
+        ImageGenerationResponse response = successResponse();
+        when(imageGenerationService.generateImage(any(ImageGenerationRequest.class)))
+            .thenReturn(Mono.just(GenerationResult.upstream(response)));
+
+        // When
+        MvcResult result = mockMvc.perform(post("/api/generate-image?compact=true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.images[0].url").value("https://fal.media/files/test-image.jpg"))
+                .andExpect(jsonPath("$.seed").value(1234567890L))
+                .andExpect(content().string(not(containsString("\"prompt\""))))
+                .andExpect(content().string(not(containsString("\"timings\""))))
+                .andExpect(content().string(not(containsString("\"error\""))));
+        // The cached response shared with other requests is left untouched
+        assertThat(response.getPrompt()).isEqualTo("A beautiful sunset");
+    }
+
+    @Test
+    public void testGenerateImage_FullResponseKeepsNullFields() throws Exception {
+        // Given: a response without NSFW flags or timings
+        ImageGenerationRequest request = new ImageGenerationRequest("A beautiful sunset", 1);
+        ImageGenerationResponse.GeneratedImage generatedImage = new ImageGenerationResponse.GeneratedImage(
+                "https://fal.media/files/test-image.jpg", 1920, 1080, "image/jpeg");
+        ImageGenerationResponse response = new ImageGenerationResponse(List.of(generatedImage), null, 1234567890L,
+                null, "A beautiful sunset");
+        when(imageGenerationService.generateImage(any(ImageGenerationRequest.class)))
+            .thenReturn(Mono.just(GenerationResult.upstream(response)));
+
+        // When
+        MvcResult result = mockMvc.perform(post("/api/generate-image")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"error\":null")))
+                .andExpect(content().string(containsString("\"has_nsfw_concepts\":null")))
+                .andExpect(content().string(containsString("\"timings\":null")));
+    }
+
+    @Test
+    public void testGenerateImage_NegotiatesCbor() throws Exception {
+        // Given
+        ObjectMapper cborMapper = new CBORMapper();
+        ImageGenerationRequest request = new ImageGenerationRequest("A beautiful sunset", 1);
+        when(imageGenerationService.generateImage(any(ImageGenerationRequest.class)))
+            .thenReturn(Mono.just(GenerationResult.upstream(successResponse())));
+
+        // When
+        MvcResult result = mockMvc.perform(post("/api/generate-image")
+                .contentType(MediaType.APPLICATION_CBOR)
+                .accept(MediaType.APPLICATION_CBOR)
+                .content(cborMapper.writeValueAsBytes(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        ImageGenerationResponse decoded = cborMapper.readValue(body, ImageGenerationResponse.class);
+        assertThat(decoded.getStatus()).isEqualTo("success");
+        assertThat(decoded.getImages().get(0).getUrl()).isEqualTo("https://fal.media/files/test-image.jpg");
+    }
+
     @Test
     public void testGenerateImage_ValidationError() throws Exception {
         // Given
@@ -95,15 +202,163 @@ public class ImageGenerationControllerTest {
         ImageGenerationResponse errorResponse = new ImageGenerationResponse("FAL.ai API error");
 
         when(imageGenerationService.generateImage(any(ImageGenerationRequest.class)))
-            .thenReturn(Mono.just(errorResponse));
+            .thenReturn(Mono.just(GenerationResult.upstream(errorResponse)));
 
-        // When & Then
-        mockMvc.perform(post("/api/generate-image")
+        // When
+        MvcResult result = mockMvc.perform(post("/api/generate-image")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
                 .andDo(print())
                 .andExpect(status().isInternalServerError())
                 .andExpect(jsonPath("$.status").value("error"))
                 .andExpect(jsonPath("$.error").value("FAL.ai API error"));
     }
-} 
\ No newline at end of file
+
+    @Test
+    public void testGenerateImage_PromptTooLong() throws Exception {
+        // Given
+        ImageGenerationRequest request = new ImageGenerationRequest();
+        request.setPrompt("a".repeat(ImageGenerationRequest.MAX_PROMPT_LENGTH + 1));
+        request.setNumImages(1);
+
+        // When & Then
+        mockMvc.perform(post("/api/generate-image")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(containsString("characters")));
+    }
+
+    @Test
+    public void testGenerateImage_PromptTooManyBytes() throws Exception {
+        // Given: 1500 characters, 4500 bytes in UTF-8
+        ImageGenerationRequest request = new ImageGenerationRequest();
+        request.setPrompt("\u732b".repeat(1500));
+        request.setNumImages(1);
+
+        // When & Then
+        mockMvc.perform(post("/api/generate-image")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(containsString("bytes")));
+    }
+
+    @Test
+    public void testGenerateImage_InvalidEnumValue() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/generate-image")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"prompt\": \"A beautiful sunset\", \"num_images\": 1, \"output_format\": \"gif\"}"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("error"))
+                .andExpect(jsonPath("$.error").value("Invalid value 'gif' for output_format, expected one of [jpeg, png]"));
+    }
+
+    @Test
+    public void testGenerateImage_BodyTooLarge() throws Exception {
+        // Given
+        String body = "{\"prompt\": \"" + "a".repeat(32 * 1024) + "\", \"num_images\": 1}";
+
+        // When & Then
+        mockMvc.perform(post("/api/generate-image")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andDo(print())
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.status").value("error"));
+    }
+
+    @Test
+    public void testGenerateImage_ChunkedBodyTooLarge() throws Exception {
+        // Given
+        String body = "{\"prompt\": \"" + "a".repeat(32 * 1024) + "\", \"num_images\": 1}";
+
+        // When & Then
+        mockMvc.perform(post("/api/generate-image")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.TRANSFER_ENCODING, "chunked")
+                .content(body)
+                .with(ImageGenerationControllerTest::withoutContentLength))
+                .andDo(print())
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.status").value("error"))
+                .andExpect(jsonPath("$.error").value(containsString("Request body exceeds")));
+
+        verify(imageGenerationService, never()).generateImage(any(ImageGenerationRequest.class));
+    }
+
+    @Test
+    public void testGenerateImage_BudgetExceeded() throws Exception {
+        // Given
+        ImageGenerationRequest request = new ImageGenerationRequest();
+        request.setPrompt("A beautiful sunset");
+        request.setNumImages(1);
+
+        doThrow(new BudgetExceededException("acme", "Monthly budget of 50 USD exceeded for tenant 'acme'"))
+            .when(usageAccountingService).admit(eq("acme"), any(ImageGenerationRequest.class));
+
+        // When & Then
+        mockMvc.perform(post("/api/generate-image")
+                .header("X-Tenant-Id", "acme")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andDo(print())
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.status").value("error"));
+
+        verify(imageGenerationService, never()).generateImage(any(ImageGenerationRequest.class));
+    }
+
+    @Test
+    public void testGenerateImage_InvalidTenant() throws Exception {
+        // Given
+        ImageGenerationRequest request = new ImageGenerationRequest();
+        request.setPrompt("A beautiful sunset");
+        request.setNumImages(1);
+
+        // When & Then
+        mockMvc.perform(post("/api/generate-image")
+                .header("X-Tenant-Id", "acme corp")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    private static ImageGenerationResponse successResponse() {
+        ImageGenerationResponse.GeneratedImage generatedImage = new ImageGenerationResponse.GeneratedImage(
+                "https://fal.media/files/test-image.jpg", 1920, 1080, "image/jpeg");
+        return new ImageGenerationResponse(List.of(generatedImage), Map.of("inference", 1.5), 1234567890L,
+                List.of(false), "A beautiful sunset");
+    }
+
+    // MockHttpServletRequest derives Content-Length from its content, as if every body had the header
+    private static MockHttpServletRequest withoutContentLength(MockHttpServletRequest request) {
+        MockHttpServletRequest chunked = new MockHttpServletRequest(request.getServletContext(),
+                request.getMethod(), request.getRequestURI()) {
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunked.setContent(request.getContentAsByteArray());
+        chunked.setContentType(request.getContentType());
+        Collections.list(request.getHeaderNames()).forEach(name ->
+                Collections.list(request.getHeaders(name)).forEach(value -> chunked.addHeader(name, value)));
+        return chunked;
+    }
+}
@@ -0,0 +1,67 @@
+package com.playground.backend.controller;
+
+import com.playground.backend.dto.UsageReport;
+import com.playground.backend.service.UsageAccountingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(UsageController.class)
+@TestPropertySource(properties = "playground.cluster.secret=test-secret")
+public class UsageControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UsageAccountingService usageAccountingService;
+
+    @Test
+    public void testAllUsage_WithSecret() throws Exception {
+        // Given
+        when(usageAccountingService.report()).thenReturn(List.of(report("acme")));
+
+        // When & Then
+        mockMvc.perform(get("/api/usage").header("X-Cluster-Secret", "test-secret"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].tenant").value("acme"));
+    }
+
+    @Test
+    public void testAllUsage_WithoutSecret() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/usage"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.error").value("Usage of all tenants is only available to internal callers"));
+        mockMvc.perform(get("/api/usage").header("X-Cluster-Secret", "wrong"))
+                .andExpect(status().isForbidden());
+        verify(usageAccountingService, never()).report();
+    }
+
+    @Test
+    public void testUsage_OneTenant() throws Exception {
+        // Given
+        when(usageAccountingService.report("acme")).thenReturn(report("acme"));
+
+        // When & Then
+        mockMvc.perform(get("/api/usage/acme"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tenant").value("acme"));
+    }
+
+    private static UsageReport report(String tenant) {
+        return new UsageReport(tenant, "2024-01", 1, 1, 0, new BigDecimal("0.06"), 1500.0, null);
+    }
+}
@@ -0,0 +1,53 @@
+package com.playground.backend.logging;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RateLimitedLoggerTest {
+
+    @Test
+    public void testError_StackTracesLimitedPerWindow() {
+        // Given
+        Logger logger = mock(Logger.class);
+        when(logger.isErrorEnabled()).thenReturn(true);
+        RateLimitedLogger rateLimitedLogger = new RateLimitedLogger(logger, 2, 1, TimeUnit.HOURS);
+        RuntimeException error = new RuntimeException("Connection reset");
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            rateLimitedLogger.error("Error calling FAL.ai API", error);
+        }
+
+        // Then
+        verify(logger, times(2)).error("Error calling FAL.ai API", error);
+        verify(logger, times(3)).error(anyString(), eq("Error calling FAL.ai API"), eq(error.toString()));
+    }
+
+    @Test
+    public void testError_ReportsSuppressedCountInNextWindow() throws Exception {
+        // Given
+        Logger logger = mock(Logger.class);
+        when(logger.isErrorEnabled()).thenReturn(true);
+        RateLimitedLogger rateLimitedLogger = new RateLimitedLogger(logger, 1, 50, TimeUnit.MILLISECONDS);
+        RuntimeException error = new RuntimeException("Connection reset");
+
+        // When
+        rateLimitedLogger.error("Error calling FAL.ai API", error);
+        rateLimitedLogger.error("Error calling FAL.ai API", error);
+        Thread.sleep(60);
+        rateLimitedLogger.error("Error calling FAL.ai API", error);
+
+        // Then
+        verify(logger).error(eq("{} ({} similar stack traces suppressed)"), eq("Error calling FAL.ai API"), eq(1), any(Throwable.class));
+    }
+}
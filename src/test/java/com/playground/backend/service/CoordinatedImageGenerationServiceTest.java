@@ -0,0 +1,302 @@
+package com.playground.backend.service;
+
+import com.playground.backend.cluster.ClusterMembership;
+import com.playground.backend.config.CacheConfig;
+import com.playground.backend.config.ClusterConfig;
+import com.playground.backend.config.FalConfig;
+import com.playground.backend.config.UsageConfig;
+import com.playground.backend.dto.ImageGenerationRequest;
+import com.playground.backend.dto.ImageGenerationResponse;
+import com.playground.backend.dto.UsageReport;
+import com.playground.backend.logging.RequestCorrelationFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CoordinatedImageGenerationServiceTest {
+
+    private FalImageGenerationService falImageGenerationService;
+    private FalConfig falConfig;
+    private CacheConfig cacheConfig;
+
+    @BeforeEach
+    public void setUp() {
+        falImageGenerationService = mock(FalImageGenerationService.class);
+        falConfig = new FalConfig();
+        falConfig.setModelId("fal-ai/flux-pro/v1.1-ultra");
+        cacheConfig = new CacheConfig();
+    }
+
+    @Test
+    public void testGenerateImage_ServesSeededRequestFromCache() {
+        // Given
+        CoordinatedImageGenerationService service = service(new ClusterConfig());
+        when(falImageGenerationService.generateImage(any(ImageGenerationRequest.class)))
+                .thenReturn(Mono.just(success()));
+
+        // When
+        GenerationResult first = service.generateImage(request("A cat", 42L)).block();
+        GenerationResult second = service.generateImage(request("A cat", 42L)).block();
+
+        // Then
+        assertThat(first.source()).isEqualTo(GenerationResult.Source.UPSTREAM);
+        assertThat(second.source()).isEqualTo(GenerationResult.Source.CACHE);
+        assertThat(second.response()).isSameAs(first.response());
+        assertThat(service.getCached(request("A cat", 42L))).isSameAs(first.response());
+        verify(falImageGenerationService, times(1)).generateImage(any(ImageGenerationRequest.class));
+    }
+
+    @Test
+    public void testGenerateImage_DoesNotCacheUnseededOrFailedRequests() {
+        // Given
+        CoordinatedImageGenerationService service = service(new ClusterConfig());
+        when(falImageGenerationService.generateImage(any(ImageGenerationRequest.class)))
+                .thenReturn(Mono.just(success()))
+                .thenReturn(Mono.just(success()))
+                .thenReturn(Mono.just(new ImageGenerationResponse("FAL.ai API error")))
+                .thenReturn(Mono.just(success()));
+
+        // When
+        service.generateImage(request("A cat", null)).block();
+        service.generateImage(request("A cat", null)).block();
+        service.generateImage(request("A dog", 7L)).block();
+        service.generateImage(request("A dog", 7L)).block();
+
+        // Then
+        verify(falImageGenerationService, times(4)).generateImage(any(ImageGenerationRequest.class));
+    }
+
+    @Test
+    public void testGenerateImage_CoalescesConcurrentIdenticalRequests() {
+        // Given
+        CoordinatedImageGenerationService service = service(new ClusterConfig());
+        Sinks.One<ImageGenerationResponse> upstream = Sinks.one();
+        when(falImageGenerationService.generateImage(any(ImageGenerationRequest.class)))
+                .thenReturn(upstream.asMono());
+
+        // When
+        Mono<GenerationResult> first = service.generateImage(request("A cat", 42L));
+        Mono<GenerationResult> second = service.generateImage(request("A cat", 42L));
+        upstream.tryEmitValue(success());
+
+        // Then
+        assertThat(first.block().source()).isEqualTo(GenerationResult.Source.UPSTREAM);
+        assertThat(second.block().source()).isEqualTo(GenerationResult.Source.COALESCED);
+        assertThat(first.block().response()).isSameAs(second.block().response());
+        verify(falImageGenerationService, times(1)).generateImage(any(ImageGenerationRequest.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGenerateImage_ChargesRepeatedSeededRequestOnce() {
+        // Given
+        CoordinatedImageGenerationService service = service(new ClusterConfig());
+        when(falImageGenerationService.generateImage(any(ImageGenerationRequest.class)))
+                .thenReturn(Mono.just(success()));
+        UsageConfig usageConfig = new UsageConfig();
+        usageConfig.setCostPerImage(Map.of("fal-ai/flux-pro/v1.1-ultra", new BigDecimal("0.06")));
+        UsageAccountingService usageAccountingService = new UsageAccountingService(usageConfig, falConfig,
+                mock(ObjectProvider.class), Clock.systemUTC());
+
+        // When
+        for (int i = 0; i < 2; i++) {
+            ImageGenerationRequest request = request("A cat", 42L);
+            request.setNumImages(1);
+            UsageAccountingService.Reservation reservation = usageAccountingService.admit("acme", request);
+            usageAccountingService.record(reservation, service.generateImage(request).block(), 0);
+        }
+
+        // Then
+        UsageReport report = usageAccountingService.report("acme");
+        assertThat(report.getRequests()).isEqualTo(2);
+        assertThat(report.getImages()).isEqualTo(2);
+        assertThat(report.getEstimatedCostUsd()).isEqualByComparingTo("0.06");
+    }
+
+    @Test
+    public void testGenerateImage_FallsBackLocallyWhenOwnerUnreachable() {
+        // Given: the only peer listens on a port nothing is bound to
+        ClusterConfig clusterConfig = new ClusterConfig();
+        clusterConfig.setEnabled(true);
+        clusterConfig.setSelf("http://127.0.0.1:8081");
+        clusterConfig.setPeers(List.of("http://127.0.0.1:8081", "http://127.0.0.1:1"));
+        clusterConfig.setFailureThreshold(1);
+        clusterConfig.setSecret("change-me");
+        ClusterMembership membership = new ClusterMembership(clusterConfig, WebClient.builder());
+        CoordinatedImageGenerationService service = new CoordinatedImageGenerationService(falImageGenerationService,
+                membership, clusterConfig, cacheConfig, falConfig, WebClient.builder());
+        when(falImageGenerationService.generateImage(any(ImageGenerationRequest.class)))
+                .thenReturn(Mono.just(success()));
+        ImageGenerationRequest request = requestOwnedBy(membership, "http://127.0.0.1:1");
+
+        // When
+        ImageGenerationResponse response = service.generateImage(request).block().response();
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo("success");
+        assertThat(membership.getRing().getNodes()).containsExactly("http://127.0.0.1:8081");
+        verify(falImageGenerationService, times(1)).generateImage(any(ImageGenerationRequest.class));
+    }
+
+    @Test
+    public void testGenerateImage_ForwardsWithSecretAndRequestId() {
+        // Given
+        ClusterConfig clusterConfig = new ClusterConfig();
+        clusterConfig.setEnabled(true);
+        clusterConfig.setSelf("http://127.0.0.1:8081");
+        clusterConfig.setPeers(List.of("http://127.0.0.1:8081", "http://127.0.0.1:8082"));
+        clusterConfig.setSecret("change-me");
+        ClusterMembership membership = new ClusterMembership(clusterConfig, WebClient.builder());
+        List<ClientRequest> forwarded = new ArrayList<>();
+        ExchangeFunction owner = forwardedRequest -> {
+            forwarded.add(forwardedRequest);
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .header(CoordinatedImageGenerationService.SOURCE_HEADER, "CACHE")
+                    .body("{\"status\":\"success\",\"images\":[],\"seed\":42}")
+                    .build());
+        };
+        CoordinatedImageGenerationService service = new CoordinatedImageGenerationService(falImageGenerationService,
+                membership, clusterConfig, cacheConfig, falConfig, WebClient.builder().exchangeFunction(owner));
+        ImageGenerationRequest request = requestOwnedBy(membership, "http://127.0.0.1:8082");
+
+        // When
+        GenerationResult result;
+        try (MDC.MDCCloseable ignored = MDC.putCloseable(RequestCorrelationFilter.MDC_KEY, "req-1")) {
+            result = service.generateImage(request).block();
+        }
+
+        // Then
+        assertThat(result.source()).isEqualTo(GenerationResult.Source.CACHE);
+        assertThat(result.response().getSeed()).isEqualTo(42L);
+        assertThat(forwarded).hasSize(1);
+        assertThat(forwarded.get(0).url().toString())
+                .isEqualTo("http://127.0.0.1:8082" + CoordinatedImageGenerationService.FORWARD_PATH);
+        assertThat(forwarded.get(0).headers().getFirst(CoordinatedImageGenerationService.SECRET_HEADER))
+                .isEqualTo("change-me");
+        assertThat(forwarded.get(0).headers().getFirst(RequestCorrelationFilter.HEADER)).isEqualTo("req-1");
+        verify(falImageGenerationService, never()).generateImage(any(ImageGenerationRequest.class));
+    }
+
+    @Test
+    public void testGenerateImage_FailsWhenOwnerRejectsForward() {
+        // Given: the owner does not accept this replica's secret
+        ClusterConfig clusterConfig = twoReplicas();
+        ExchangeFunction owner = forwardedRequest -> Mono.just(ClientResponse.create(HttpStatus.FORBIDDEN)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"status\":\"error\",\"error\":\"Forwarding is not allowed\"}")
+                .build());
+        ClusterMembership membership = new ClusterMembership(clusterConfig, WebClient.builder());
+        CoordinatedImageGenerationService service = new CoordinatedImageGenerationService(falImageGenerationService,
+                membership, clusterConfig, cacheConfig, falConfig, WebClient.builder().exchangeFunction(owner));
+
+        // When
+        GenerationResult result = service.generateImage(requestOwnedBy(membership, "http://127.0.0.1:8082")).block();
+
+        // Then: no second upstream call, and the owner stays on the ring
+        assertThat(result.response().getStatus()).isEqualTo("error");
+        assertThat(result.response().getError()).isEqualTo("Forwarded generation failed (HTTP 403)");
+        assertThat(membership.getRing().getNodes()).contains("http://127.0.0.1:8082");
+        verify(falImageGenerationService, never()).generateImage(any(ImageGenerationRequest.class));
+    }
+
+    @Test
+    public void testGenerateImage_FailsWhenForwardTimesOut() {
+        // Given: the owner accepts the request but never answers
+        ClusterConfig clusterConfig = twoReplicas();
+        clusterConfig.setForwardTimeout(Duration.ofSeconds(1));
+        ExchangeFunction owner = forwardedRequest -> Mono.never();
+        ClusterMembership membership = new ClusterMembership(clusterConfig, WebClient.builder());
+        CoordinatedImageGenerationService service = new CoordinatedImageGenerationService(falImageGenerationService,
+                membership, clusterConfig, cacheConfig, falConfig, WebClient.builder().exchangeFunction(owner));
+
+        // When
+        GenerationResult result = service.generateImage(requestOwnedBy(membership, "http://127.0.0.1:8082"))
+                .block(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(result.response().getStatus()).isEqualTo("error");
+        assertThat(result.response().getError()).isEqualTo("Forwarded generation did not complete within 1s");
+        verify(falImageGenerationService, never()).generateImage(any(ImageGenerationRequest.class));
+    }
+
+    @Test
+    public void testGenerateImage_FailsWhenOwnerAnswersWithoutBody() {
+        // Given
+        ClusterConfig clusterConfig = twoReplicas();
+        ExchangeFunction owner = forwardedRequest -> Mono.just(ClientResponse.create(HttpStatus.OK).build());
+        ClusterMembership membership = new ClusterMembership(clusterConfig, WebClient.builder());
+        CoordinatedImageGenerationService service = new CoordinatedImageGenerationService(falImageGenerationService,
+                membership, clusterConfig, cacheConfig, falConfig, WebClient.builder().exchangeFunction(owner));
+
+        // When
+        GenerationResult result = service.generateImage(requestOwnedBy(membership, "http://127.0.0.1:8082")).block();
+
+        // Then: an error response, so usage records a failed request
+        assertThat(result.response().getStatus()).isEqualTo("error");
+        assertThat(result.response().getError()).isEqualTo("Malformed response to forwarded generation: empty body");
+        verify(falImageGenerationService, never()).generateImage(any(ImageGenerationRequest.class));
+    }
+
+    private static ClusterConfig twoReplicas() {
+        ClusterConfig clusterConfig = new ClusterConfig();
+        clusterConfig.setEnabled(true);
+        clusterConfig.setSelf("http://127.0.0.1:8081");
+        clusterConfig.setPeers(List.of("http://127.0.0.1:8081", "http://127.0.0.1:8082"));
+        clusterConfig.setSecret("change-me");
+        return clusterConfig;
+    }
+
+    private CoordinatedImageGenerationService service(ClusterConfig clusterConfig) {
+        ClusterMembership membership = new ClusterMembership(clusterConfig, WebClient.builder());
+        return new CoordinatedImageGenerationService(falImageGenerationService, membership, clusterConfig,
+                cacheConfig, falConfig, WebClient.builder());
+    }
+
+    private ImageGenerationRequest requestOwnedBy(ClusterMembership membership, String owner) {
+        for (long seed = 0; ; seed++) {
+            ImageGenerationRequest request = request("A cat", seed);
+            if (owner.equals(membership.ownerOf(request.cacheKey(falConfig.getModelId())))) {
+                return request;
+            }
+        }
+    }
+
+    private static ImageGenerationRequest request(String prompt, Long seed) {
+        ImageGenerationRequest request = new ImageGenerationRequest();
+        request.setPrompt(prompt);
+        request.setSeed(seed);
+        return request;
+    }
+
+    private static ImageGenerationResponse success() {
+        ImageGenerationResponse.GeneratedImage image =
+                new ImageGenerationResponse.GeneratedImage("https://example.com/image.jpg", 1024, 1024, "image/jpeg");
+        return new ImageGenerationResponse(List.of(image), null, 42L, List.of(false), "A cat");
+    }
+}
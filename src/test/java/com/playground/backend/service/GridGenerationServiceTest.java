@@ -0,0 +1,180 @@
+package com.playground.backend.service;
+
+import com.playground.backend.config.FalConfig;
+import com.playground.backend.config.GridConfig;
+import com.playground.backend.dto.AspectRatio;
+import com.playground.backend.dto.GridCell;
+import com.playground.backend.dto.GridGenerationRequest;
+import com.playground.backend.dto.ImageGenerationRequest;
+import com.playground.backend.dto.ImageGenerationResponse;
+import com.playground.backend.exception.BudgetExceededException;
+import com.playground.backend.exception.InvalidGridException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GridGenerationServiceTest {
+
+    private CoordinatedImageGenerationService imageGenerationService;
+    private UsageAccountingService usageAccountingService;
+    private GridConfig gridConfig;
+    private GridGenerationService gridGenerationService;
+
+    @BeforeEach
+    public void setUp() {
+        imageGenerationService = mock(CoordinatedImageGenerationService.class);
+        usageAccountingService = mock(UsageAccountingService.class);
+        gridConfig = new GridConfig();
+        FalConfig falConfig = new FalConfig();
+        falConfig.setModelId("fal-ai/flux-pro/v1.1-ultra");
+        gridGenerationService = new GridGenerationService(imageGenerationService, usageAccountingService,
+                Validation.buildDefaultValidatorFactory().getValidator(), gridConfig, falConfig);
+    }
+
+    @Test
+    public void testExpand_CartesianProductInOrder() {
+        // Given
+        GridGenerationRequest grid = grid(List.of(new GridGenerationRequest.SeedRange(10L, 2)),
+                List.of(AspectRatio.RATIO_1_1, AspectRatio.RATIO_16_9), List.of(", watercolor", ", sketch"));
+
+        // When
+        List<GridGenerationService.Cell> cells = gridGenerationService.expand(grid);
+
+        // Then
+        assertThat(cells).hasSize(8);
+        assertThat(cells.get(0).request().getPrompt()).isEqualTo("A lighthouse, watercolor");
+        assertThat(cells).extracting(GridGenerationService.Cell::seed).containsExactly(10L, 11L, 10L, 11L, 10L, 11L, 10L, 11L);
+        assertThat(cells.get(2).request().getAspectRatio()).isEqualTo(AspectRatio.RATIO_16_9);
+        assertThat(cells.get(4).request().getPrompt()).isEqualTo("A lighthouse, sketch");
+        assertThat(grid.getBase().getSeed()).isNull();
+    }
+
+    @Test
+    public void testExpand_RejectsTooManyCells() {
+        // Given
+        gridConfig.setMaxCells(10);
+        GridGenerationRequest grid = grid(List.of(new GridGenerationRequest.SeedRange(0L, 6)),
+                List.of(AspectRatio.RATIO_1_1, AspectRatio.RATIO_16_9), List.of());
+
+        // When / Then
+        assertThatThrownBy(() -> gridGenerationService.generate("acme", grid, false))
+                .isInstanceOf(InvalidGridException.class)
+                .hasMessage("Grid expands to 12 cells, at most 10 are allowed");
+        verify(imageGenerationService, never()).generateImage(any(ImageGenerationRequest.class));
+    }
+
+    @Test
+    public void testExpand_RejectsPromptMadeTooLongBySuffix() {
+        // Given
+        GridGenerationRequest grid = grid(List.of(), List.of(), List.of("x".repeat(ImageGenerationRequest.MAX_PROMPT_LENGTH)));
+
+        // When / Then
+        assertThatThrownBy(() -> gridGenerationService.expand(grid))
+                .isInstanceOf(InvalidGridException.class)
+                .hasMessageContaining("Prompt cannot exceed");
+    }
+
+    @Test
+    public void testGenerate_DeduplicatesAndServesCachedCellsFirst() {
+        // Given: seeds 1-2 and 2-3 overlap in seed 2, and seed 3 is already cached
+        GridGenerationRequest grid = grid(List.of(new GridGenerationRequest.SeedRange(1L, 2),
+                new GridGenerationRequest.SeedRange(2L, 2)), List.of(), List.of());
+        when(imageGenerationService.getCached(argThat(request -> request != null && request.getSeed() == 3L)))
+                .thenReturn(success(3L));
+        when(imageGenerationService.generateImage(any(ImageGenerationRequest.class)))
+                .thenAnswer(invocation -> Mono.just(GenerationResult.upstream(
+                        success(((ImageGenerationRequest) invocation.getArgument(0)).getSeed()))));
+
+        // When
+        List<GridCell> cells = gridGenerationService.generate("acme", grid, true).collectList().block();
+
+        // Then
+        assertThat(cells).hasSize(4);
+        assertThat(cells.get(0).getSeed()).isEqualTo(3L);
+        assertThat(cells.get(0).isCached()).isTrue();
+        assertThat(cells).extracting(GridCell::getIndex).containsExactlyInAnyOrder(0, 1, 2, 3);
+        assertThat(cells).allSatisfy(cell -> {
+            assertThat(cell.getResponse().getSeed()).isEqualTo(cell.getSeed());
+            assertThat(cell.getResponse().getPrompt()).isNull();
+        });
+        verify(imageGenerationService, times(2)).generateImage(any(ImageGenerationRequest.class));
+        verify(usageAccountingService, times(3)).admit(eq("acme"), any(ImageGenerationRequest.class));
+        verify(usageAccountingService).record(any(),
+                argThat(result -> result.source() == GenerationResult.Source.CACHE && result.response().getSeed() == 3L),
+                eq(0L));
+    }
+
+    @Test
+    public void testGenerate_BoundsConcurrency() {
+        // Given
+        gridConfig.setConcurrency(2);
+        GridGenerationRequest grid = grid(List.of(new GridGenerationRequest.SeedRange(0L, 8)), List.of(), List.of());
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(imageGenerationService.generateImage(any(ImageGenerationRequest.class)))
+                .thenAnswer(invocation -> Mono.delay(Duration.ofMillis(20))
+                        .doOnSubscribe(s -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                        .doOnNext(tick -> inFlight.decrementAndGet())
+                        .map(tick -> GenerationResult.upstream(success(((ImageGenerationRequest) invocation.getArgument(0)).getSeed()))));
+
+        // When
+        List<GridCell> cells = gridGenerationService.generate("acme", grid, false).collectList().block();
+
+        // Then
+        assertThat(cells).hasSize(8);
+        assertThat(maxInFlight.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testGenerate_OverBudgetCellsReturnErrors() {
+        // Given
+        GridGenerationRequest grid = grid(List.of(new GridGenerationRequest.SeedRange(0L, 2)), List.of(), List.of());
+        doThrow(new BudgetExceededException("acme", "Monthly budget of 0.06 USD exceeded for tenant 'acme'"))
+                .when(usageAccountingService).admit(eq("acme"), argThat(request -> request != null && request.getSeed() == 1L));
+        when(imageGenerationService.generateImage(any(ImageGenerationRequest.class)))
+                .thenReturn(Mono.just(GenerationResult.upstream(success(0L))));
+
+        // When
+        List<GridCell> cells = gridGenerationService.generate("acme", grid, false).collectList().block();
+
+        // Then
+        assertThat(cells).hasSize(2);
+        GridCell rejected = cells.stream().filter(cell -> cell.getSeed() == 1L).findFirst().orElseThrow();
+        assertThat(rejected.getResponse().getStatus()).isEqualTo("error");
+        assertThat(rejected.getResponse().getError()).contains("Monthly budget");
+        verify(imageGenerationService, times(1)).generateImage(any(ImageGenerationRequest.class));
+    }
+
+    private static GridGenerationRequest grid(List<GridGenerationRequest.SeedRange> seedRanges,
+                                              List<AspectRatio> aspectRatios, List<String> promptSuffixes) {
+        GridGenerationRequest grid = new GridGenerationRequest();
+        grid.setBase(new ImageGenerationRequest("A lighthouse", 1));
+        grid.setSeedRanges(seedRanges);
+        grid.setAspectRatios(aspectRatios);
+        grid.setPromptSuffixes(promptSuffixes);
+        return grid;
+    }
+
+    private static ImageGenerationResponse success(Long seed) {
+        ImageGenerationResponse.GeneratedImage image =
+                new ImageGenerationResponse.GeneratedImage("https://example.com/" + seed + ".jpg", 1024, 1024, "image/jpeg");
+        return new ImageGenerationResponse(List.of(image), null, seed, List.of(false), "A lighthouse");
+    }
+}
@@ -0,0 +1,315 @@
+package com.playground.backend.service;
+
+import com.playground.backend.config.FalConfig;
+import com.playground.backend.config.UsageConfig;
+import com.playground.backend.dto.ImageGenerationRequest;
+import com.playground.backend.dto.ImageGenerationResponse;
+import com.playground.backend.dto.UsageReport;
+import com.playground.backend.entity.UsageRecord;
+import com.playground.backend.exception.BudgetExceededException;
+import com.playground.backend.repository.UsageRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UsageAccountingServiceTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2024-01-15T10:30:00Z"), ZoneOffset.UTC);
+
+    private UsageConfig usageConfig;
+    private UsageRecordRepository repository;
+    private UsageAccountingService usageAccountingService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        FalConfig falConfig = new FalConfig();
+        falConfig.setModelId("fal-ai/flux-pro/v1.1-ultra");
+
+        usageConfig = new UsageConfig();
+        usageConfig.setCostPerImage(Map.of("fal-ai/flux-pro/v1.1-ultra", new BigDecimal("0.06")));
+        usageConfig.setBudgets(Map.of("acme", new BigDecimal("0.20")));
+
+        repository = mock(UsageRecordRepository.class);
+        ObjectProvider<UsageRecordRepository> repositoryProvider = mock(ObjectProvider.class);
+        when(repositoryProvider.getIfAvailable()).thenReturn(repository);
+
+        usageAccountingService = new UsageAccountingService(usageConfig, falConfig, repositoryProvider, CLOCK);
+    }
+
+    @Test
+    public void testRecord_AggregatesPerTenant() {
+        // Given
+        ImageGenerationRequest request = request(2);
+
+        // When
+        usageAccountingService.record(usageAccountingService.admit("acme", request), success(2), 1_500_000_000L);
+        usageAccountingService.record(usageAccountingService.admit("acme", request(1)),
+                GenerationResult.upstream(new ImageGenerationResponse("FAL.ai API error")), 500_000_000L);
+
+        // Then
+        UsageReport report = usageAccountingService.report("acme");
+        assertThat(report.getPeriod()).isEqualTo("2024-01");
+        assertThat(report.getRequests()).isEqualTo(2);
+        assertThat(report.getImages()).isEqualTo(2);
+        assertThat(report.getErrors()).isEqualTo(1);
+        assertThat(report.getEstimatedCostUsd()).isEqualByComparingTo("0.12");
+        assertThat(report.getAverageLatencyMs()).isEqualTo(1000.0);
+        assertThat(usageAccountingService.report()).extracting(UsageReport::getTenant).containsExactly("acme");
+    }
+
+    @Test
+    public void testRecord_DoesNotChargeCachedOrCoalescedResults() {
+        // When
+        usageAccountingService.record(usageAccountingService.admit("other", request(2)), success(2), 0);
+        usageAccountingService.record(usageAccountingService.admit("other", request(2)),
+                success(2, GenerationResult.Source.CACHE), 0);
+        usageAccountingService.record(usageAccountingService.admit("other", request(2)),
+                success(2, GenerationResult.Source.COALESCED), 0);
+
+        // Then
+        UsageReport report = usageAccountingService.report("other");
+        assertThat(report.getRequests()).isEqualTo(3);
+        assertThat(report.getImages()).isEqualTo(6);
+        assertThat(report.getEstimatedCostUsd()).isEqualByComparingTo("0.12");
+    }
+
+    @Test
+    public void testAdmit_RejectsOverBudget() {
+        // Given: 0.18 of 0.20 USD spent
+        ImageGenerationRequest request = request(3);
+        usageAccountingService.record(usageAccountingService.admit("acme", request), success(3), 0);
+
+        // When & Then
+        assertThatThrownBy(() -> usageAccountingService.admit("acme", request(1)))
+            .isInstanceOf(BudgetExceededException.class);
+    }
+
+    @Test
+    public void testAdmit_CountsReservedRequests() {
+        // Given: 3 images in flight
+        usageAccountingService.admit("acme", request(3));
+
+        // When & Then
+        assertThatThrownBy(() -> usageAccountingService.admit("acme", request(1)))
+            .isInstanceOf(BudgetExceededException.class);
+    }
+
+    @Test
+    public void testAdmit_DowngradesToAffordableImages() {
+        // Given
+        usageConfig.setOverBudgetAction(UsageConfig.OverBudgetAction.DOWNGRADE);
+        ImageGenerationRequest request = request(4);
+
+        // When
+        usageAccountingService.admit("acme", request);
+
+        // Then
+        assertThat(request.getNumImages()).isEqualTo(3);
+    }
+
+    @Test
+    public void testAdmit_UnlimitedWithoutBudget() {
+        // Given
+        ImageGenerationRequest request = request(4);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            usageAccountingService.admit("other", request);
+        }
+
+        // Then
+        assertThat(request.getNumImages()).isEqualTo(4);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFlush_WritesDeltasOnly() {
+        // Given
+        ImageGenerationRequest request = request(1);
+        usageAccountingService.record(usageAccountingService.admit("acme", request), success(1), 0);
+
+        // When
+        usageAccountingService.flush();
+        usageAccountingService.flush();
+        usageAccountingService.record(usageAccountingService.admit("acme", request), success(1), 0);
+        usageAccountingService.flush();
+
+        // Then
+        ArgumentCaptor<List<UsageRecord>> records = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(2)).saveAll(records.capture());
+        assertThat(records.getAllValues()).allSatisfy(flushed -> {
+            assertThat(flushed).hasSize(1);
+            assertThat(flushed.get(0).getImages()).isEqualTo(1);
+            assertThat(flushed.get(0).getCostMicros()).isEqualTo(60_000);
+        });
+    }
+
+    @Test
+    public void testRecord_SettlesInAdmissionMonth() {
+        // Given: 3 images admitted just before the month ends
+        Clock clock = mock(Clock.class);
+        when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        when(clock.instant()).thenReturn(Instant.parse("2024-01-31T23:59:59Z"));
+        UsageAccountingService service = service(clock);
+        UsageAccountingService.Reservation reservation = service.admit("acme", request(3));
+
+        // When: the request completes in the next month
+        when(clock.instant()).thenReturn(Instant.parse("2024-02-01T00:00:05Z"));
+        service.record(reservation, success(3), 0);
+        service.flush();
+
+        // Then: January is charged, February's budget is untouched and not inflated
+        assertThat(service.report("acme").getImages()).isZero();
+        service.admit("acme", request(3));
+        assertThatThrownBy(() -> service.admit("acme", request(1)))
+            .isInstanceOf(BudgetExceededException.class);
+        UsageRecord record = flushedRecords().get(0);
+        assertThat(record.getPeriod()).isEqualTo("2024-01");
+        assertThat(record.getImages()).isEqualTo(3);
+        assertThat(record.getCostMicros()).isEqualTo(180_000);
+    }
+
+    @Test
+    public void testFlush_KeepsPastMonthUntilSettled() {
+        // Given: a request admitted in January still in flight in February
+        Clock clock = mock(Clock.class);
+        when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        when(clock.instant()).thenReturn(Instant.parse("2024-01-31T23:59:59Z"));
+        UsageAccountingService service = service(clock);
+        UsageAccountingService.Reservation reservation = service.admit("acme", request(1));
+        when(clock.instant()).thenReturn(Instant.parse("2024-02-01T00:00:05Z"));
+
+        // When
+        service.flush();
+        service.record(reservation, success(1), 0);
+        service.flush();
+
+        // Then
+        UsageRecord record = flushedRecords().get(0);
+        assertThat(record.getPeriod()).isEqualTo("2024-01");
+        assertThat(record.getImages()).isEqualTo(1);
+    }
+
+    @Test
+    public void testAbandon_ChargesReservation() {
+        // Given
+        UsageAccountingService.Reservation reservation = usageAccountingService.admit("acme", request(3));
+
+        // When: the client goes away before the result arrives
+        usageAccountingService.abandon(reservation, 0);
+
+        // Then: the 0.18 USD are spent and leave no room for another image
+        UsageReport report = usageAccountingService.report("acme");
+        assertThat(report.getRequests()).isEqualTo(1);
+        assertThat(report.getImages()).isZero();
+        assertThat(report.getEstimatedCostUsd()).isEqualByComparingTo("0.18");
+        assertThatThrownBy(() -> usageAccountingService.admit("acme", request(1)))
+            .isInstanceOf(BudgetExceededException.class);
+    }
+
+    @Test
+    public void testAbandon_IgnoresSettledReservation() {
+        // Given
+        UsageAccountingService.Reservation reservation = usageAccountingService.admit("other", request(3));
+        usageAccountingService.record(reservation, success(3), 0);
+
+        // When
+        usageAccountingService.abandon(reservation, 0);
+
+        // Then
+        UsageReport report = usageAccountingService.report("other");
+        assertThat(report.getRequests()).isEqualTo(1);
+        assertThat(report.getImages()).isEqualTo(3);
+        assertThat(report.getEstimatedCostUsd()).isEqualByComparingTo("0.18");
+    }
+
+    @Test
+    public void testRestoreCurrentPeriod_CountsTowardsBudget() {
+        // Given: 0.18 USD spent before a restart
+        when(repository.findByPeriodAndReplica("2024-01", "default")).thenReturn(Collections.singletonList(
+                new UsageRecord("default", "acme", "2024-01", CLOCK.instant(), 1, 3, 0, 180_000, 0)));
+
+        // When
+        usageAccountingService.restoreCurrentPeriod();
+
+        // Then
+        assertThat(usageAccountingService.report("acme").getImages()).isEqualTo(3);
+        assertThatThrownBy(() -> usageAccountingService.admit("acme", request(1)))
+            .isInstanceOf(BudgetExceededException.class);
+    }
+
+    @Test
+    public void testRestoreCurrentPeriod_OnlyOwnReplica() {
+        // Given: two replicas sharing the database, each with 0.06 USD spent by "other"
+        usageConfig.setReplica("replica-a");
+        List<UsageRecord> rows = List.of(
+                new UsageRecord("replica-a", "other", "2024-01", CLOCK.instant(), 1, 1, 0, 60_000, 0),
+                new UsageRecord("replica-b", "other", "2024-01", CLOCK.instant(), 1, 1, 0, 60_000, 0));
+        when(repository.findByPeriodAndReplica(anyString(), anyString())).thenAnswer(invocation -> rows.stream()
+                .filter(row -> row.getPeriod().equals(invocation.getArgument(0))
+                        && row.getReplica().equals(invocation.getArgument(1)))
+                .toList());
+
+        // When
+        usageAccountingService.restoreCurrentPeriod();
+        usageAccountingService.record(usageAccountingService.admit("other", request(1)), success(1), 0);
+        usageAccountingService.flush();
+
+        // Then: replica-b's row is neither counted nor written back
+        assertThat(usageAccountingService.report("other").getImages()).isEqualTo(2);
+        UsageRecord record = flushedRecords().get(0);
+        assertThat(record.getReplica()).isEqualTo("replica-a");
+        assertThat(record.getImages()).isEqualTo(1);
+        assertThat(record.getCostMicros()).isEqualTo(60_000);
+    }
+
+    @SuppressWarnings("unchecked")
+    private UsageAccountingService service(Clock clock) {
+        FalConfig falConfig = new FalConfig();
+        falConfig.setModelId("fal-ai/flux-pro/v1.1-ultra");
+        ObjectProvider<UsageRecordRepository> repositoryProvider = mock(ObjectProvider.class);
+        when(repositoryProvider.getIfAvailable()).thenReturn(repository);
+        return new UsageAccountingService(usageConfig, falConfig, repositoryProvider, clock);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<UsageRecord> flushedRecords() {
+        ArgumentCaptor<List<UsageRecord>> records = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(records.capture());
+        assertThat(records.getValue()).hasSize(1);
+        return records.getValue();
+    }
+
+    private static ImageGenerationRequest request(int numImages) {
+        return new ImageGenerationRequest("A beautiful sunset", numImages);
+    }
+
+    private static GenerationResult success(int images) {
+        return success(images, GenerationResult.Source.UPSTREAM);
+    }
+
+    private static GenerationResult success(int images, GenerationResult.Source source) {
+        List<ImageGenerationResponse.GeneratedImage> generated = Collections.nCopies(images,
+                new ImageGenerationResponse.GeneratedImage("https://fal.media/files/test-image.jpg", 1920, 1080, "image/jpeg"));
+        return new GenerationResult(
+                new ImageGenerationResponse(generated, Map.of(), 1L, List.of(false), "A beautiful sunset"), source);
+    }
+}